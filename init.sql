@@ -1,3 +1,22 @@
+-- Executado pelo container do PostgreSQL apenas na criação do volume, antes da aplicação subir.
+-- Tabelas iguais à V1 de src/main/resources/db/migration: no profile prd o Flyway faz o baseline
+-- deste banco como V1 e aplica as migrações seguintes (anime_seq, version...).
+CREATE TABLE IF NOT EXISTS public.anime (
+    id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS public.dev_dojo_user_details (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    authorities varchar(255),
+    name        varchar(255),
+    password    varchar(255),
+    username    varchar(255)
+);
+
+-- Pré-requisito do índice trigram da migração V7 (busca por nome), criado aqui pelo superusuário do container
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 INSERT INTO public.anime (name) VALUES ('Hunter x Hunter');
 INSERT INTO public.anime (name) VALUES ('Naruto');
 INSERT INTO public.anime (name) VALUES ('One Piece');
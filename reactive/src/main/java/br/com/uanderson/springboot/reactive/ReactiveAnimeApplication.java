@@ -0,0 +1,19 @@
+package br.com.uanderson.springboot.reactive;
+
+import br.com.uanderson.springboot.security.TokenService;
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.servers.Server;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+@SpringBootApplication
+@Import(TokenService.class)//Mesmo TokenService da aplicação servlet: aceita os tokens emitidos em POST /auth/token
+@OpenAPIDefinition(servers = { @Server(url = "/", description = "Default Server URL")})
+public class ReactiveAnimeApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveAnimeApplication.class, args);
+	}
+
+}
@@ -0,0 +1,60 @@
+package br.com.uanderson.springboot.reactive.config;
+
+import br.com.uanderson.springboot.security.TokenService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mesmas regras de acesso da aplicação servlet, autenticando apenas pelo token (Bearer) emitido em
+ * POST /auth/token da aplicação servlet (mesmo app.security.token.secret). Sem sessão, sem HTTP Basic
+ * e sem consultas ao banco de dados para autenticar.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+    private static final String BEARER_PREFIX = TokenService.TOKEN_TYPE + " ";
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, TokenService tokenService) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/animes/admin/**").hasRole("ADMIN")//A Ordem de declaração é importante
+                        .pathMatchers("/animes/**").hasRole("USER")
+                        .pathMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/webjars/**").permitAll()
+                        .pathMatchers("/actuator/**").permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(tokenAuthenticationFilter(tokenService), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    private static AuthenticationWebFilter tokenAuthenticationFilter(TokenService tokenService) {
+        //O token já é validado (HMAC e expiração) ao ser convertido, o manager só repassa a Authentication
+        ReactiveAuthenticationManager authenticationManager = Mono::just;
+        AuthenticationWebFilter filter = new AuthenticationWebFilter(authenticationManager);
+        filter.setServerAuthenticationConverter(exchange -> {
+            String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+                return Mono.empty();
+            }
+            return Mono.justOrEmpty(tokenService.verify(header.substring(BEARER_PREFIX.length()).trim()));
+        });
+        return filter;
+        /*
+        Token inválido/expirado: o converter retorna vazio, a requisição segue sem autenticação e
+        o Spring Security responde 401, como no TokenAuthenticationFilter da aplicação servlet.
+         */
+    }
+}
@@ -0,0 +1,123 @@
+package br.com.uanderson.springboot.reactive.controller;
+
+import br.com.uanderson.springboot.reactive.domain.Anime;
+import br.com.uanderson.springboot.reactive.service.AnimeService;
+import br.com.uanderson.springboot.requests.AnimePostRequestBody;
+import br.com.uanderson.springboot.requests.AnimePutRequestBody;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mesmo contrato do /animes da aplicação servlet (paginação, busca por id e por nome, CRUD e streaming),
+ * sem bloquear as threads do event loop: cada método só monta o pipeline (Mono/Flux), que o WebFlux
+ * executa à medida que o banco responde.
+ */
+@RestController
+@RequestMapping("animes")
+@Log4j2
+@RequiredArgsConstructor
+public class AnimeController {
+    private final AnimeService animeService;
+
+    @GetMapping(path = "/all")
+    @Operation(summary = "List all animes without pagination", description = "Returns a list of all animes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation")
+    })
+    public Flux<Anime> listAllNoPageable() {
+        return animeService.listAllNoPageable();
+    }
+
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all animes as NDJSON", description = "Streams every anime, one JSON object per line, "
+            + "reading from the database only as fast as the client consumes. Use the header Accept: application/x-ndjson")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation")
+    })
+    public Flux<Anime> streamAll() {
+        return animeService.streamAll();
+    }
+
+    @GetMapping
+    @Operation(summary = "List all animes paginated", description = "The default size is 5, use the parameter size to change the default value")
+    public Mono<Page<Anime>> listAllPageable(@ParameterObject Pageable pageable) {
+        return animeService.listAllPageable(pageable);
+    }
+
+    @GetMapping(path = "/{id}")
+    @Operation(summary = "Find anime by ID", description = "Returns a single anime by its ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation"),
+            @ApiResponse(responseCode = "400", description = "Anime not found")
+    })
+    public Mono<Anime> findById(@Parameter(description = "ID of the anime to be searched") @PathVariable Long id) {
+        return animeService.findByIdOrThrowBadRequestException(id);
+    }
+
+    @GetMapping(path = "by-id/{id}")
+    @Operation(summary = "Find anime by ID with user details", description = "Returns a single anime by its ID, logs user details")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation"),
+            @ApiResponse(responseCode = "400", description = "Anime not found")
+    })
+    public Mono<Anime> findByIdAuthenticationPrincipal(
+            @Parameter(description = "ID of the anime to be searched") @PathVariable Long id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        log.debug("Name user logado: {}", userDetails.getUsername());
+        return animeService.findByIdOrThrowBadRequestException(id);
+    }
+
+    @GetMapping(path = "/find")
+    @Operation(summary = "Find animes by name", description = "Returns the animes with exactly the given name")
+    public Flux<Anime> findByName(@Parameter(description = "Name of the animes to be searched") @RequestParam String name) {
+        return animeService.findByName(name);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Save new anime", description = "Creates a new anime")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Anime created successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad Request Exception, Invalid fields")
+    })
+    public Mono<Anime> save(@RequestBody @Valid AnimePostRequestBody animePostRequestBody) {
+        return animeService.save(animePostRequestBody);
+    }
+
+    @DeleteMapping(path = "/admin/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Delete anime by ID", description = "Deletes an anime by its ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Succesful Operation"),
+            @ApiResponse(responseCode = "400", description = "When Anime does not exists in the Database")
+    })
+    public Mono<Void> deleteById(@Parameter(description = "ID of the anime to be deleted") @PathVariable Long id) {
+        return animeService.deleteById(id);
+    }
+
+    @PutMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Operation(summary = "Replace anime", description = "Replaces an existing anime")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Successful Operation"),
+            @ApiResponse(responseCode = "400", description = "Bad Request Exception, Invalid fields")
+    })
+    public Mono<Void> replace(@RequestBody AnimePutRequestBody animePutRequestBody) {
+        return animeService.replace(animePutRequestBody);
+    }
+}
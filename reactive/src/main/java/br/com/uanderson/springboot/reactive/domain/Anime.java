@@ -0,0 +1,26 @@
+package br.com.uanderson.springboot.reactive.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("anime")//Mesma tabela da entidade JPA da aplicação servlet
+public class Anime {
+    @Id
+    private Long id;
+    private String name;
+    @Version//Mesma coluna version da entidade JPA (ETag e lock otimista na aplicação servlet)
+    private Long version;
+}
+/*
+R2DBC não é JPA: não existe contexto de persistência, lazy loading, dirty checking nem @GeneratedValue.
+O id vem da mesma sequence (anime_seq) usada pelo Hibernate, buscado pelo AnimeService antes do INSERT.
+ */
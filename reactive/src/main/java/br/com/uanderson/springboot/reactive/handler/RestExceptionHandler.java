@@ -0,0 +1,74 @@
+package br.com.uanderson.springboot.reactive.handler;
+
+import br.com.uanderson.springboot.exception.BadRequestException;
+import br.com.uanderson.springboot.exception.BadRequestExceptionDetails;
+import br.com.uanderson.springboot.exception.ConflictException;
+import br.com.uanderson.springboot.exception.ExceptionDetails;
+import br.com.uanderson.springboot.exception.ValidationExceptionDetails;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Mesmo JSON de erro do RestExceptionHandler da aplicação servlet (BadRequestExceptionDetails,
+ * ExceptionDetails do 409 e ValidationExceptionDetails). No WebFlux a falha do @Valid é uma WebExchangeBindException.
+ */
+@RestControllerAdvice
+public class RestExceptionHandler {
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<BadRequestExceptionDetails> handleBadRequestException(BadRequestException badRequestException) {
+        return new ResponseEntity<>(
+                BadRequestExceptionDetails.builder()
+                        .title("Bad Request Exception, Check the Documentation")
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .details(badRequestException.getMessage())
+                        .developerMessage(badRequestException.getClass().getName())
+                        .timestamp(LocalDateTime.now())
+                        .build(), HttpStatus.BAD_REQUEST
+        );
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ExceptionDetails> handleConflictException(ConflictException conflictException) {
+        return new ResponseEntity<>(
+                ExceptionDetails.builder()
+                        .title("Conflict Exception, Reload the resource and try again")
+                        .status(HttpStatus.CONFLICT.value())
+                        .details(conflictException.getMessage())
+                        .developerMessage(conflictException.getClass().getName())
+                        .timestamp(LocalDateTime.now())
+                        .build(), HttpStatus.CONFLICT
+        );
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ValidationExceptionDetails> handleWebExchangeBindException(WebExchangeBindException exception) {
+        List<FieldError> fieldErrors = exception.getBindingResult().getFieldErrors();
+
+        String fields = fieldErrors.stream().map(FieldError::getField)
+                .collect(Collectors.joining(", "));
+
+        String fieldsMessage = fieldErrors.stream().map(FieldError::getDefaultMessage)
+                .collect(Collectors.joining(", "));
+
+        return new ResponseEntity<>(
+                ValidationExceptionDetails.builder()
+                        .title("Bad Request Exception, Invalid fields")
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .details(exception.getMessage())
+                        .developerMessage(exception.getClass().getName())
+                        .timestamp(LocalDateTime.now())
+                        .fields(fields)
+                        .fieldsMessage(fieldsMessage)
+                        .build(), HttpStatus.BAD_REQUEST
+        );
+    }
+}
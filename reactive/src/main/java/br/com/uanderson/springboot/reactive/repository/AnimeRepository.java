@@ -0,0 +1,45 @@
+package br.com.uanderson.springboot.reactive.repository;
+
+import br.com.uanderson.springboot.reactive.domain.Anime;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface AnimeRepository extends R2dbcRepository<Anime, Long> {
+
+    Flux<Anime> findByName(String name);
+
+    //SELECT ... ORDER BY ... LIMIT ? OFFSET ?, o total (COUNT) é consultado à parte pelo AnimeService
+    Flux<Anime> findAllBy(Pageable pageable);
+
+    /*
+     A anime_seq incrementa de 50 (allocationSize do Hibernate), e cada valor retornado pelo nextval
+     é o fim de um bloco que o Hibernate nunca usa em outro bloco: usar o próprio valor como id não colide
+     com os ids gerados pela aplicação servlet (são desperdiçados 49 ids por insert).
+     */
+    @Query("SELECT nextval('anime_seq')")
+    Mono<Long> nextId();
+
+    //version + 1: as ETags e o lock otimista da aplicação servlet também enxergam as alterações feitas aqui
+    @Modifying
+    @Query("UPDATE anime SET name = :name, version = version + 1 WHERE id = :id")
+    Mono<Integer> updateNameById(Long id, String name);
+
+    @Modifying
+    @Query("UPDATE anime SET name = :name, version = version + 1 WHERE id = :id AND version = :version")
+    Mono<Integer> updateNameByIdAndVersion(Long id, String name, Long version);
+
+    @Modifying
+    @Query("DELETE FROM anime WHERE id = :id")
+    Mono<Integer> removeById(Long id);
+
+    /*
+     Versão da tabela anime (ETag das listagens da aplicação servlet), avançada pelo AnimeService depois de cada
+     escrita daqui já confirmada, como o AnimeTableVersion da aplicação servlet. O nextval não trava linhas.
+     */
+    @Query("SELECT nextval('anime_table_version_seq')")
+    Mono<Long> nextTableVersion();
+}
@@ -0,0 +1,99 @@
+package br.com.uanderson.springboot.reactive.service;
+
+import br.com.uanderson.springboot.exception.BadRequestException;
+import br.com.uanderson.springboot.exception.ConflictException;
+import br.com.uanderson.springboot.reactive.domain.Anime;
+import br.com.uanderson.springboot.reactive.repository.AnimeRepository;
+import br.com.uanderson.springboot.requests.AnimePostRequestBody;
+import br.com.uanderson.springboot.requests.AnimePutRequestBody;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class AnimeService {
+    //Quantidade de animes pedidos ao banco por vez no streaming, o mesmo fetch size da aplicação servlet
+    static final int STREAM_BATCH_SIZE = 500;
+
+    private final AnimeRepository animeRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+
+    public Mono<Page<Anime>> listAllPageable(Pageable pageable) {
+        return animeRepository.findAllBy(pageable).collectList()
+                .zipWith(animeRepository.count())
+                .map(contentAndTotal -> new PageImpl<>(contentAndTotal.getT1(), pageable, contentAndTotal.getT2()));
+        //As duas consultas (página e COUNT) são enviadas sem bloquear nenhuma thread
+    }
+
+    public Flux<Anime> listAllNoPageable() {
+        return animeRepository.findAll();
+    }
+
+    public Flux<Anime> streamAll() {
+        return animeRepository.findAll().limitRate(STREAM_BATCH_SIZE);
+        /*
+        Backpressure: o Netty só pede mais animes quando consegue escrever na conexão, e o limitRate
+        repassa essa demanda ao banco em lotes de STREAM_BATCH_SIZE. Um cliente lento não faz o
+        servidor carregar a tabela inteira na memória.
+         */
+    }
+
+    public Flux<Anime> findByName(String name) {
+        return animeRepository.findByName(name);
+    }
+
+    public Mono<Anime> findByIdOrThrowBadRequestException(Long id) {
+        return animeRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("Anime not found with id " + id)));
+    }
+
+    public Mono<Anime> save(AnimePostRequestBody animePostRequestBody) {
+        return animeRepository.nextId()
+                .map(id -> Anime.builder().id(id).name(animePostRequestBody.getName()).build())
+                .flatMap(entityTemplate::insert)
+                .flatMap(anime -> nextTableVersion().thenReturn(anime));
+        /*
+        insert e não save: com o id preenchido o save do repository faria um UPDATE.
+        Sem transação: o nextval do id não é desfeito em rollback e o INSERT é uma única instrução (auto-commit),
+        assim a versão da tabela só avança depois que o anime já é visível, o mesmo vale para o replace e o deleteById.
+         */
+    }
+
+    public Mono<Void> deleteById(Long id) {
+        return animeRepository.removeById(id)
+                .flatMap(removed -> removed == 0
+                        ? Mono.error(new BadRequestException("Anime not found with id " + id))
+                        : nextTableVersion());
+    }
+
+    public Mono<Void> replace(AnimePutRequestBody animePutRequestBody) {
+        if (animePutRequestBody.getName() == null || animePutRequestBody.getName().isEmpty()) {
+            return Mono.error(new BadRequestException("The anime name cannot be empty"));
+        }
+        Long id = animePutRequestBody.getId();
+        if (animePutRequestBody.getVersion() == null) {
+            return animeRepository.updateNameById(id, animePutRequestBody.getName())
+                    .flatMap(updated -> updated == 0
+                            ? Mono.error(new BadRequestException("Anime not found with id " + id))
+                            : nextTableVersion());
+        }
+        return animeRepository.updateNameByIdAndVersion(id, animePutRequestBody.getName(), animePutRequestBody.getVersion())
+                .flatMap(updated -> updated > 0
+                        ? nextTableVersion()
+                        : animeRepository.existsById(id)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new ConflictException("The anime " + id + " was modified, expected version " + animePutRequestBody.getVersion())
+                                : new BadRequestException("Anime not found with id " + id))));
+        //Mesmas regras e mensagens do AnimeService da aplicação servlet, incluindo o nextval da anime_table_version_seq
+    }
+
+    private Mono<Void> nextTableVersion() {
+        return animeRepository.nextTableVersion().then();
+    }
+}
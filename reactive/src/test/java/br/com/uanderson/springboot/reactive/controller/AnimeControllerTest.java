@@ -0,0 +1,209 @@
+package br.com.uanderson.springboot.reactive.controller;
+
+import br.com.uanderson.springboot.reactive.domain.Anime;
+import br.com.uanderson.springboot.requests.AnimePostRequestBody;
+import br.com.uanderson.springboot.requests.AnimePutRequestBody;
+import br.com.uanderson.springboot.security.GrantedAuthorityPool;
+import br.com.uanderson.springboot.security.TokenService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("Tests for the reactive Anime Controller")
+class AnimeControllerTest {
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient.sql("DELETE FROM anime").then().block();
+    }
+
+    @Test
+    @DisplayName("listAllPageable returns the paged animes when successful")
+    void listAllPageable_ReturnsPagedAnimes_WhenSuccessful() {
+        Anime saved = save("Tensei Shitara Slime Datta Ken");
+
+        webTestClient.get().uri("/animes")
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content[0].id").isEqualTo(saved.getId())
+                .jsonPath("$.content[0].name").isEqualTo(saved.getName())
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.size").isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("findById returns 400 BadRequest when anime is not found")
+    void findById_ReturnsBadRequest_WhenAnimeIsNotFound() {
+        webTestClient.get().uri("/animes/{id}", 1)
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Bad Request Exception, Check the Documentation")
+                .jsonPath("$.details").isEqualTo("Anime not found with id 1");
+    }
+
+    @Test
+    @DisplayName("save returns 400 BadRequest when anime name is empty")
+    void save_ReturnsBadRequest_WhenAnimeNameIsEmpty() {
+        webTestClient.post().uri("/animes")
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .bodyValue(AnimePostRequestBody.builder().name("").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Bad Request Exception, Invalid fields")
+                .jsonPath("$.fields").isEqualTo("name");
+    }
+
+    @Test
+    @DisplayName("save creates the anime and streamAll returns it as NDJSON when successful")
+    void save_CreatesAnime_AndStreamAllReturnsIt_WhenSuccessful() {
+        Anime created = webTestClient.post().uri("/animes")
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .bodyValue(AnimePostRequestBody.builder().name("Boku no Hero").build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Anime.class)
+                .returnResult().getResponseBody();
+
+        Assertions.assertThat(created).isNotNull();
+        Assertions.assertThat(created.getId()).isNotNull();
+
+        List<Anime> streamed = webTestClient.get().uri("/animes/all")
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Anime.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        Assertions.assertThat(streamed).containsExactly(created);
+    }
+
+    @Test
+    @DisplayName("replace updates the anime name when successful")
+    void replace_UpdatesAnimeName_WhenSuccessful() {
+        Anime saved = save("Tensei Shitara Slime Datta Ken");
+
+        webTestClient.put().uri("/animes")
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .bodyValue(AnimePutRequestBody.builder().id(saved.getId()).name("Renamed").build())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri("/animes/find?name={name}", "Renamed")
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Anime.class)
+                .hasSize(1).contains(Anime.builder().id(saved.getId()).name("Renamed").version(1L).build());
+    }
+
+    @Test
+    @DisplayName("deleteById returns 403 Forbidden when user is not admin")
+    void deleteById_ReturnsForbidden_WhenUserIsNotAdmin() {
+        Anime saved = save("Tensei Shitara Slime Datta Ken");
+
+        webTestClient.delete().uri("/animes/admin/{id}", saved.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .exchange()
+                .expectStatus().isForbidden();
+
+        webTestClient.delete().uri("/animes/admin/{id}", saved.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_ADMIN))
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    @DisplayName("listAllPageable returns 401 Unauthorized when token is invalid")
+    void listAllPageable_ReturnsUnauthorized_WhenTokenIsInvalid() {
+        webTestClient.get().uri("/animes")
+                .header(HttpHeaders.AUTHORIZATION, TokenService.TOKEN_TYPE + " invalid.token")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    @DisplayName("replace returns 409 Conflict when the anime was modified since the informed version")
+    void replace_ReturnsConflict_WhenVersionDoesNotMatch() {
+        Anime saved = save("Tensei Shitara Slime Datta Ken");
+
+        webTestClient.put().uri("/animes")
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .bodyValue(AnimePutRequestBody.builder().id(saved.getId()).name("Renamed").version(saved.getVersion() + 1).build())
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody()
+                .jsonPath("$.details").isEqualTo("The anime " + saved.getId() + " was modified, expected version 1");
+    }
+
+    @Test
+    @DisplayName("save, replace and deleteById advance the anime table version used by the servlet ETags")
+    void writes_AdvanceAnimeTableVersion_WhenSuccessful() {
+        long tableVersion = tableVersion();
+        Anime saved = save("Tensei Shitara Slime Datta Ken");
+
+        webTestClient.put().uri("/animes")
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .bodyValue(AnimePutRequestBody.builder().id(saved.getId()).name("Renamed").build())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/animes/admin/{id}", saved.getId())
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_ADMIN))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        Assertions.assertThat(tableVersion()).isEqualTo(tableVersion + 3);
+    }
+
+    private long tableVersion() {
+        return databaseClient.sql("SELECT base_value FROM information_schema.sequences "
+                        + "WHERE sequence_name = 'ANIME_TABLE_VERSION_SEQ'")
+                .map(row -> row.get("base_value", Long.class))
+                .one()
+                .block();
+    }
+
+    private Anime save(String name) {
+        return webTestClient.post().uri("/animes")
+                .header(HttpHeaders.AUTHORIZATION, bearer(GrantedAuthorityPool.ROLE_USER))
+                .bodyValue(AnimePostRequestBody.builder().name(name).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Anime.class)
+                .returnResult().getResponseBody();
+    }
+
+    private String bearer(GrantedAuthority authority) {
+        String token = tokenService.issue(UsernamePasswordAuthenticationToken.authenticated("devdojo", null, List.of(authority)));
+        return TokenService.TOKEN_TYPE + " " + token;
+    }
+}
@@ -0,0 +1,8 @@
+-- Mesma estrutura da aplicação servlet (anime + anime_seq com allocationSize 50 + anime_table_version_seq)
+CREATE SEQUENCE IF NOT EXISTS anime_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS anime (
+    id      BIGINT PRIMARY KEY,
+    name    VARCHAR(255) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+CREATE SEQUENCE IF NOT EXISTS anime_table_version_seq;
@@ -0,0 +1,80 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.requests.AnimePostRequestBody;
+import br.com.uanderson.springboot.service.AnimeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Animes inseridos por segundo (ops/s = linhas/s) em cada caminho (H2 em memória):
+ * <ul>
+ *     <li>singleInsert: AnimeService.save, 1 transação por anime (como POST /animes);</li>
+ *     <li>batchInsert: AnimeService.saveAll, 1 transação com JDBC batch e flush/clear por lote (POST /animes/batch).</li>
+ * </ul>
+ * No PostgreSQL a diferença é maior: cada insert individual é uma ida e volta na rede.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AnimeBatchInsertBenchmark {
+    private static final int ANIMES = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+    private JdbcTemplate jdbcTemplate;
+    private List<AnimePostRequestBody> animePostRequestBodies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        animeService = context.getBean(AnimeService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        animePostRequestBodies = IntStream.range(0, ANIMES)
+                .mapToObj(i -> AnimePostRequestBody.builder().name("Anime " + i).build())
+                .toList();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE anime");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANIMES)
+    public void singleInsert() {
+        for (AnimePostRequestBody animePostRequestBody : animePostRequestBodies) {
+            animeService.save(animePostRequestBody);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANIMES)
+    public int batchInsert() {
+        return animeService.saveAll(animePostRequestBodies.iterator());
+    }
+}
@@ -0,0 +1,100 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.requests.AnimePutRequestBody;
+import br.com.uanderson.springboot.service.AnimeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Animes removidos/renomeados por segundo (ops/s = linhas/s) em cada caminho (H2 em memória):
+ * <ul>
+ *     <li>singleDelete/singleReplace: AnimeService.deleteById/replace, 1 transação e 1 statement por anime
+ *     (como DELETE /animes/admin/{id} e PUT /animes);</li>
+ *     <li>batchDelete/batchReplace: AnimeService.deleteAll/replaceAll, 1 transação e 1 statement por lote
+ *     (DELETE /animes/admin/batch e PUT /animes/batch).</li>
+ * </ul>
+ * Os animes são inseridos novamente antes de cada invocação. Via HTTP o loop por id ainda paga
+ * a autenticação e a ida e volta de cada requisição, que não entram aqui.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AnimeBatchWriteBenchmark {
+    private static final int ANIMES = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+    private JdbcTemplate jdbcTemplate;
+    private List<Long> ids;
+    private List<AnimePutRequestBody> animePutRequestBodies;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        animeService = context.getBean(AnimeService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        ids = LongStream.rangeClosed(1, ANIMES).boxed().toList();
+        animePutRequestBodies = ids.stream()
+                .map(id -> AnimePutRequestBody.builder().id(id).name("Renamed " + id).build())
+                .toList();
+    }
+
+    @Setup(Level.Invocation)//Cada invocação processa 1000 animes, o custo do setup não distorce a medição
+    public void seed() {
+        jdbcTemplate.execute("TRUNCATE TABLE anime");
+        jdbcTemplate.update("INSERT INTO anime (id, name) SELECT X, 'Anime ' || X FROM SYSTEM_RANGE(1, ?)", ANIMES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANIMES)
+    public void singleDelete() {
+        for (Long id : ids) {
+            animeService.deleteById(id);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANIMES)
+    public int batchDelete() {
+        return animeService.deleteAll(ids, null, AnimeService.NameMatch.PREFIX);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANIMES)
+    public void singleReplace() {
+        for (AnimePutRequestBody animePutRequestBody : animePutRequestBodies) {
+            animeService.replace(animePutRequestBody);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ANIMES)
+    public int batchReplace() {
+        return animeService.replaceAll(animePutRequestBodies);
+    }
+}
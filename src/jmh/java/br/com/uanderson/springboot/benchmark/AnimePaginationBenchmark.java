@@ -0,0 +1,112 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.service.AnimeService;
+import br.com.uanderson.springboot.wrapper.CountType;
+import br.com.uanderson.springboot.wrapper.CursorPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência de GET /animes em cada modo de paginação (H2 em memória):
+ * <ul>
+ *     <li>firstPage/offsetPage: listAllPageable (página 1 e 1000), OFFSET/LIMIT + count(*);</li>
+ *     <li>firstSlice/offsetSlice: listAllSlice (count=false, página 1 e 1000), OFFSET/LIMIT sem count(*);</li>
+ *     <li>firstPageCached: listAllPageable com CountType.CACHED, OFFSET/LIMIT + o total do AnimeCounter;</li>
+ *     <li>keysetPage: listAllAfter, WHERE id &lt; cursor ORDER BY id DESC LIMIT, sem count(*).</li>
+ * </ul>
+ * A diferença entre firstPage e firstSlice é o custo do count(*), que cresce com a tabela (rows).
+ * O CountType.ESTIMATED não é medido: o H2 não tem o pg_class e cai para o count(*) exato.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AnimePaginationBenchmark {
+    private static final int PAGE = 1000;
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"20"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+    private PageRequest firstPageRequest;
+    private PageRequest offsetPageRequest;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        context.getBean(JdbcTemplate.class)
+                .update("INSERT INTO anime (id, name) SELECT X, 'Anime ' || X FROM SYSTEM_RANGE(1, ?)", rows);
+        animeService = context.getBean(AnimeService.class);
+        firstPageRequest = PageRequest.of(0, size, Sort.by("id").descending());
+        offsetPageRequest = PageRequest.of(PAGE - 1, size, Sort.by("id").descending());
+
+        //Percorre as páginas anteriores para obter o cursor da página 1000, como faria um cliente
+        String nextCursor = "";
+        for (int page = 1; page < PAGE; page++) {
+            nextCursor = animeService.listAllAfter(nextCursor, size).getNextCursor();
+        }
+        cursor = nextCursor;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Anime> firstPage() {
+        return animeService.listAllPageable(firstPageRequest);
+    }
+
+    @Benchmark
+    public Slice<Anime> firstSlice() {
+        return animeService.listAllSlice(firstPageRequest);
+    }
+
+    @Benchmark
+    public Page<Anime> firstPageCached() {
+        return animeService.listAllPageable(firstPageRequest, CountType.CACHED);
+    }
+
+    @Benchmark
+    public Page<Anime> offsetPage() {
+        return animeService.listAllPageable(offsetPageRequest);
+    }
+
+    @Benchmark
+    public Slice<Anime> offsetSlice() {
+        return animeService.listAllSlice(offsetPageRequest);
+    }
+
+    @Benchmark
+    public CursorPage<Anime> keysetPage() {
+        return animeService.listAllAfter(cursor, size);
+    }
+}
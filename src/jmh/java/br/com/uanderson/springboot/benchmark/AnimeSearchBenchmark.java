@@ -0,0 +1,90 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.projection.AnimeView;
+import br.com.uanderson.springboot.service.AnimeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência das buscas por nome sobre {@code rows} animes, no H2 em memória ou no PostgreSQL ({@code database}):
+ * <ul>
+ *     <li>exactName: findByName, igualdade sobre o índice idx_anime_name;</li>
+ *     <li>prefix: searchByName PREFIX, lower(name) LIKE 'anime 12345%';</li>
+ *     <li>contains: searchByName CONTAINS, lower(name) LIKE '%12345%'.</li>
+ * </ul>
+ * O H2 não tem o índice trigram (criado apenas no PostgreSQL pela migração V7), então
+ * prefix e contains medem no H2 o fallback com varredura da tabela. No PostgreSQL o schema vem das migrações
+ * (V6 e V7), o banco precisa da extensão pg_trgm e a tabela anime é esvaziada no início.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AnimeSearchBenchmark {
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"h2"})//-Djmh.database=h2,postgresql (pom.xml)
+    private String database;
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("postgresql".equals(database)) {
+            context = BenchmarkApplication.startPostgreSql();
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.execute("TRUNCATE anime");
+            jdbcTemplate.update("INSERT INTO anime (id, name) SELECT x, 'Anime ' || x FROM generate_series(1, ?) AS x", rows);
+            jdbcTemplate.execute("ANALYZE anime");//Estatísticas atualizadas: o planner escolhe os índices como em produção
+        } else {
+            context = BenchmarkApplication.start();
+            context.getBean(JdbcTemplate.class)
+                    .update("INSERT INTO anime (id, name) SELECT X, 'Anime ' || X FROM SYSTEM_RANGE(1, ?)", rows);
+        }
+        animeService = context.getBean(AnimeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<AnimeView> exactName() {
+        return animeService.findByName("Anime 12345");
+    }
+
+    @Benchmark
+    public Slice<AnimeView> prefix() {
+        return animeService.searchByName("anime 12345", AnimeService.NameMatch.PREFIX, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Slice<AnimeView> contains() {
+        return animeService.searchByName("12345", AnimeService.NameMatch.CONTAINS, FIRST_PAGE);
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.exception.BadRequestException;
+import br.com.uanderson.springboot.projection.AnimeView;
+import br.com.uanderson.springboot.requests.AnimePostRequestBody;
+import br.com.uanderson.springboot.service.AnimeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações por segundo do AnimeService com a aplicação completa (H2 em memória, caches e transações reais):
+ * <ul>
+ *     <li>findById: findByIdOrThrowBadRequestException de ids aleatórios, no cache 'animes';</li>
+ *     <li>findMissingId: findByIdOrThrowBadRequestException de ids inexistentes, 400 pelo cache 'missingAnimes';</li>
+ *     <li>save: save de um novo anime (INSERT com o id da sequence pooled).</li>
+ * </ul>
+ * Paginação, busca por nome, projeções e escritas em lote têm os seus próprios benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AnimeServiceBenchmark {
+    private static final int ANIMES = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+    private AnimePostRequestBody animePostRequestBody;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO anime (id, name) SELECT X, 'Anime ' || X FROM SYSTEM_RANGE(1, ?)", ANIMES);
+        //Sequence pooled (allocationSize = 50): cada valor reserva os 50 ids anteriores, +100 para não colidir com os inseridos
+        jdbcTemplate.execute("ALTER SEQUENCE anime_seq RESTART WITH " + (ANIMES + 100));
+        animeService = context.getBean(AnimeService.class);
+        animePostRequestBody = AnimePostRequestBody.builder().name("Benchmark").build();
+        for (long id = 1; id <= ANIMES; id++) {//Caches preenchidos: mede o acerto, não o primeiro acesso de cada id
+            animeService.findByIdOrThrowBadRequestException(id);
+            findMissing(-id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AnimeView findById() {
+        return animeService.findByIdOrThrowBadRequestException(ThreadLocalRandom.current().nextLong(1, ANIMES + 1));
+    }
+
+    @Benchmark
+    public BadRequestException findMissingId() {
+        return findMissing(-ThreadLocalRandom.current().nextLong(1, ANIMES + 1));
+    }
+
+    @Benchmark
+    public Anime save() {
+        return animeService.save(animePostRequestBody);
+    }
+
+    private BadRequestException findMissing(long id) {
+        try {
+            animeService.findByIdOrThrowBadRequestException(id);
+            throw new IllegalStateException("Anime should not exist: " + id);
+        } catch (BadRequestException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.security.CachingAuthenticationManager;
+import br.com.uanderson.springboot.security.CredentialCache;
+import br.com.uanderson.springboot.security.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de autenticar UMA requisição em cada modo (ops/s = requisições/s por thread):
+ * <ul>
+ *     <li>basic: HTTP Basic como antes, BCrypt a cada requisição;</li>
+ *     <li>basicWithCredentialCache: HTTP Basic com o CredentialCache (BCrypt só no primeiro acesso);</li>
+ *     <li>token: Bearer token HMAC validado localmente.</li>
+ * </ul>
+ * O UserDetailsService é em memória, então a consulta ao banco do modo basic (DevDojoUserDetailsService)
+ * não entra na conta, na aplicação real a diferença é ainda maior.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class AuthenticationBenchmark {
+    private static final String USERNAME = "devdojo";
+    private static final String PASSWORD = "123";
+
+    private AuthenticationManager basicAuthenticationManager;
+    private AuthenticationManager cachingAuthenticationManager;
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setPasswordEncoder(passwordEncoder);
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(USERNAME)
+                .password(passwordEncoder.encode(PASSWORD))
+                .roles("USER")
+                .build()));
+        ProviderManager providerManager = new ProviderManager(provider);
+        providerManager.setEraseCredentialsAfterAuthentication(false);
+
+        basicAuthenticationManager = providerManager;
+        cachingAuthenticationManager = new CachingAuthenticationManager(providerManager,
+                new CredentialCache(new SimpleMeterRegistry(), 10_000, Duration.ofMinutes(5)));
+        tokenService = new TokenService("benchmark-secret-with-at-least-32-bytes", Duration.ofMinutes(15));
+        token = tokenService.issue(basicAuthenticationManager.authenticate(basicRequest()));
+    }
+
+    @Benchmark
+    public Authentication basic() {
+        return basicAuthenticationManager.authenticate(basicRequest());
+    }
+
+    @Benchmark
+    public Authentication basicWithCredentialCache() {
+        return cachingAuthenticationManager.authenticate(basicRequest());
+    }
+
+    @Benchmark
+    public Authentication token() {
+        return tokenService.verify(token);
+    }
+
+    private static Authentication basicRequest() {
+        return UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, PASSWORD);
+    }
+}
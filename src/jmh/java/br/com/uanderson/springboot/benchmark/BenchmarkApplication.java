@@ -0,0 +1,47 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.SpringbootEssentialsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sobe a aplicação completa para os benchmarks, com um banco H2 em memória no lugar do PostgreSQL
+ * e sem o log das consultas SQL (que dominaria o tempo medido).
+ * {@link #startPostgreSql} usa um PostgreSQL de verdade, com o schema das migrações do Flyway (profile prd).
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return run(List.of(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop"), properties);
+    }
+
+    //Conexão das variáveis PGHOST, PGPORT, PGDATABASE, PGUSER e PGPASSWORD (application-prd.yml)
+    static ConfigurableApplicationContext startPostgreSql(String... properties) {
+        return run(List.of("spring.profiles.active=prd"), properties);
+    }
+
+    private static ConfigurableApplicationContext run(List<String> databaseProperties, String... properties) {
+        List<String> defaults = new ArrayList<>(databaseProperties);
+        defaults.addAll(List.of(
+                "spring.jpa.show-sql=false",
+                "server.port=0",
+                "logging.level.root=warn",
+                "logging.level.org.hibernate.SQL=warn",
+                "logging.level.org.hibernate.type=warn"));
+        defaults.addAll(List.of(properties));//Propriedades do benchmark sobrescrevem as padrões
+        //Como argumentos de linha de comando (--chave=valor), que têm precedência sobre o application.yml
+        return new SpringApplicationBuilder(SpringbootEssentialsApplication.class)
+                .run(defaults.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.util.DateUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do DateUtil.formatLocalDateTimeToDatabaseStyle, com o DateTimeFormatter criado uma única vez (constante).
+ * <p>
+ * Executado com -prof gc (perfil benchmarks): o gc.alloc.rate.norm mostra o que é alocado por chamada além da String.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class DateUtilBenchmark {
+    private DateUtil dateUtil;
+    private LocalDateTime localDateTime;
+
+    @Setup
+    public void setUp() {
+        dateUtil = new DateUtil();
+        localDateTime = LocalDateTime.of(2024, 6, 1, 10, 30, 15);
+    }
+
+    @Benchmark
+    public String formatLocalDateTimeToDatabaseStyle() {
+        return dateUtil.formatLocalDateTimeToDatabaseStyle(localDateTime);
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.domain.DevDojoUserDetails;
+import br.com.uanderson.springboot.mapper.AnimeMapper;
+import br.com.uanderson.springboot.mapper.DevDojoUserMapper;
+import br.com.uanderson.springboot.requests.AnimePostRequestBody;
+import br.com.uanderson.springboot.requests.AnimePutRequestBody;
+import br.com.uanderson.springboot.requests.DevDojoUserPostRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo dos mapeamentos MapStruct (DTO -> entidade) feitos em todo POST/PUT de animes e usuários.
+ * <p>
+ * Executado com -prof gc (perfil benchmarks): o gc.alloc.rate.norm deve ser só o da entidade criada.
+ * O toDevDojoUser inclui o parse das authorities (GrantedAuthorityPool) feito pelo builder do DevDojoUserDetails.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class MapperBenchmark {
+    private AnimePostRequestBody animePostRequestBody;
+    private AnimePutRequestBody animePutRequestBody;
+    private DevDojoUserPostRequest devDojoUserPostRequest;
+
+    @Setup
+    public void setUp() {
+        animePostRequestBody = AnimePostRequestBody.builder().name("Tensei Shittara Slime Datta Ken").build();
+        animePutRequestBody = AnimePutRequestBody.builder().id(1L).name("Tensei Shittara Slime Datta Ken").build();
+        devDojoUserPostRequest = DevDojoUserPostRequest.builder()
+                .name("Devdojo Academy")
+                .username("devdojo")
+                .password("{noop}benchmark")
+                .authorities("ROLE_ADMIN,ROLE_USER")
+                .build();
+    }
+
+    @Benchmark
+    public Anime animeFromPostRequest() {
+        return AnimeMapper.INSTANCE.toAnime(animePostRequestBody);
+    }
+
+    @Benchmark
+    public Anime animeFromPutRequest() {
+        return AnimeMapper.INSTANCE.toAnime(animePutRequestBody);
+    }
+
+    @Benchmark
+    public DevDojoUserDetails userFromPostRequest() {
+        return DevDojoUserMapper.INSTANCE.toDevDojoUser(devDojoUserPostRequest);
+    }
+}
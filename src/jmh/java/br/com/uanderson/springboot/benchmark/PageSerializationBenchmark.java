@@ -0,0 +1,71 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.wrapper.CountType;
+import br.com.uanderson.springboot.wrapper.CountedPage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Serialização em JSON de uma página de {@code size} animes, feita a cada GET /animes que não está no AnimePageCache:
+ * <ul>
+ *     <li>page: PageImpl, como o listAllPageable(Pageable);</li>
+ *     <li>countedPage: CountedPage, como o GET /animes com countType (campo totalElementsType a mais).</li>
+ * </ul>
+ * O ObjectMapper é montado pelo Jackson2ObjectMapperBuilder, o mesmo usado pelo Spring Boot (sem subir a aplicação).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PageSerializationBenchmark {
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private Page<Anime> page;
+    private Page<Anime> countedPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Anime> animes = LongStream.rangeClosed(1, size)
+                .mapToObj(id -> Anime.builder().id(id).name("Anime " + id).version(0L).build())
+                .toList();
+        PageRequest pageRequest = PageRequest.of(0, size, Sort.by("id"));
+        page = new PageImpl<>(animes, pageRequest, 10_000);
+        countedPage = new CountedPage<>(animes, pageRequest, 10_000, CountType.EXACT);
+    }
+
+    @Benchmark
+    public byte[] page() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] countedPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(countedPage);
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.domain.DevDojoUserDetails;
+import br.com.uanderson.springboot.projection.AnimeView;
+import br.com.uanderson.springboot.projection.DevDojoUserView;
+import br.com.uanderson.springboot.repository.AnimeRepository;
+import br.com.uanderson.springboot.repository.DevDojoUserRepository;
+import br.com.uanderson.springboot.service.AnimeService;
+import br.com.uanderson.springboot.service.DevDojoUserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leituras por segundo de {@code rows} animes/usuários (H2 em memória), como no GET /animes/all e GET /users:
+ * <ul>
+ *     <li>animeEntities/userEntities: repository.findAll(), entidades gerenciadas (snapshot para o dirty checking);</li>
+ *     <li>animeViews/userViews: AnimeService/DevDojoUserService.listAllNoPageable, projeções (record) em transação readOnly.</li>
+ * </ul>
+ * Executado com -prof gc (perfil benchmarks): o gc.alloc.rate.norm é a memória alocada por requisição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class ProjectionBenchmark {
+    @Param({"1000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private AnimeRepository animeRepository;
+    private AnimeService animeService;
+    private DevDojoUserRepository devDojoUserRepository;
+    private DevDojoUserService devDojoUserService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO anime (id, name) SELECT X, 'Anime ' || X FROM SYSTEM_RANGE(1, ?)", rows);
+        jdbcTemplate.update("INSERT INTO dev_dojo_user_details (name, username, password, authorities) "
+                + "SELECT 'User ' || X, 'user' || X, '{noop}benchmark', 'ROLE_ADMIN,ROLE_USER' FROM SYSTEM_RANGE(1, ?)", rows);
+        animeRepository = context.getBean(AnimeRepository.class);
+        animeService = context.getBean(AnimeService.class);
+        devDojoUserRepository = context.getBean(DevDojoUserRepository.class);
+        devDojoUserService = context.getBean(DevDojoUserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Anime> animeEntities() {
+        return animeRepository.findAll();
+    }
+
+    @Benchmark
+    public List<AnimeView> animeViews() {
+        return animeService.listAllNoPageable();
+    }
+
+    @Benchmark
+    public List<DevDojoUserDetails> userEntities() {
+        return devDojoUserRepository.findAll();
+    }
+
+    @Benchmark
+    public List<DevDojoUserView> userViews() {
+        return devDojoUserService.listAllNoPageable();
+    }
+}
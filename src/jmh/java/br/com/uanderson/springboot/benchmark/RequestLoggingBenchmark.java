@@ -0,0 +1,112 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.config.SampledRequestLoggingFilter;
+import br.com.uanderson.springboot.controller.AnimeController;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.OutputStreamAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilder;
+import org.apache.logging.log4j.core.config.builder.api.ConfigurationBuilderFactory;
+import org.apache.logging.log4j.core.config.builder.impl.BuiltConfiguration;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do log por requisição na thread da requisição, antes e depois do Log4j2 assíncrono com amostragem:
+ * <ul>
+ *     <li>perRequestLine: como era o AnimeController, DateTimeFormatter.ofPattern + log.info em toda requisição;</li>
+ *     <li>sampledRequestLine: o SampledRequestLoggingFilter (1% das requisições, 0.01 do application.yml)
+ *     em volta de uma requisição que não loga nada.</li>
+ * </ul>
+ * {@code appenders}: sync (Root, a própria thread formata e escreve) ou async (AsyncRoot, ring buffer do Disruptor),
+ * com o mesmo PatternLayout do log4j2-spring.xml. A saída é descartada (sem o I/O do console), ou seja,
+ * mede a formatação e a passagem pelo ring buffer. Com uma linha em toda chamada o ring buffer enche e o async
+ * passa a esperar a thread de background: o ganho do async aparece em picos, o da amostragem sempre.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class RequestLoggingBenchmark {
+    private static final String PATTERN = "%d{ISO8601_OFFSET_DATE_TIME_HHCMM} %5p %pid --- [%15.15t] %-40.40c{1.} : %m%n%xwEx";
+    private static final FilterChain NO_LOG_REQUEST = (request, response) -> {
+    };
+
+    @Param({"sync", "async"})
+    private String appenders;
+
+    private LoggerContext loggerContext;
+    private Logger controllerLog;
+    private SampledRequestLoggingFilter sampledRequestLoggingFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        ConfigurationBuilder<BuiltConfiguration> builder = ConfigurationBuilderFactory.newConfigurationBuilder();
+        builder.setStatusLevel(Level.WARN);
+        builder.add("async".equals(appenders) ? builder.newAsyncRootLogger(Level.INFO) : builder.newRootLogger(Level.INFO));
+        Configurator.reconfigure(builder.build());
+        loggerContext = LoggerContext.getContext(false);
+
+        Configuration configuration = loggerContext.getConfiguration();
+        Appender discard = OutputStreamAppender.newBuilder()
+                .setName("Discard")
+                .setLayout(PatternLayout.newBuilder().withPattern(PATTERN).withConfiguration(configuration).build())
+                .setTarget(OutputStream.nullOutputStream())
+                .build();
+        discard.start();
+        configuration.addAppender(discard);
+        configuration.getRootLogger().addAppender(discard, null, null);
+        loggerContext.updateLoggers();
+
+        controllerLog = LogManager.getLogger(AnimeController.class);
+        sampledRequestLoggingFilter = new SampledRequestLoggingFilter(0.01, Duration.ofSeconds(1));
+        request = new MockHttpServletRequest("GET", "/animes");
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Configurator.shutdown(loggerContext);
+    }
+
+    @Benchmark
+    public void perRequestLine() {
+        controllerLog.info(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss").format(LocalDateTime.now()));
+    }
+
+    @Benchmark
+    public void sampledRequestLine() throws ServletException, IOException {
+        sampledRequestLoggingFilter.doFilter(request, response, NO_LOG_REQUEST);
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.uanderson.springboot.benchmark;
+
+import br.com.uanderson.springboot.domain.DevDojoUserDetails;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de DevDojoUserDetails.getAuthorities(), chamado várias vezes por requisição autenticada.
+ * <ul>
+ *     <li>splitPerCall: implementação anterior, split + nova lista + novos SimpleGrantedAuthority a cada chamada;</li>
+ *     <li>precomputed: lista imutável montada uma vez e compartilhada (GrantedAuthorityPool).</li>
+ * </ul>
+ * Executado com -prof gc (perfil benchmarks): o gc.alloc.rate.norm do precomputed deve ser ~0 B/op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class UserAuthoritiesBenchmark {
+    private static final String AUTHORITIES = "ROLE_ADMIN,ROLE_USER";
+
+    private DevDojoUserDetails user;
+
+    @Setup
+    public void setUp() {
+        user = DevDojoUserDetails.builder()
+                .name("Devdojo Academy")
+                .username("devdojo")
+                .password("benchmark")
+                .authorities(AUTHORITIES)
+                .build();
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> splitPerCall() {
+        List<SimpleGrantedAuthority> authorityList = new ArrayList<>();
+        for (String role : AUTHORITIES.split(",")) {
+            authorityList.add(new SimpleGrantedAuthority(role));
+        }
+        return authorityList;
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> precomputed() {
+        return user.getAuthorities();
+    }
+}
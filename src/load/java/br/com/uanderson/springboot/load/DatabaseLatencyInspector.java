@@ -0,0 +1,27 @@
+package br.com.uanderson.springboot.load;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Simula a ida e volta na rede de um banco de dados real: o H2 em memória responde em microssegundos
+ * e a thread da requisição quase não fica bloqueada, ao contrário do PostgreSQL.
+ * <p>
+ * Cada statement espera {@code -Dload.db-latency-millis} (padrão {@value #DEFAULT_LATENCY_MILLIS} ms).
+ * Registrado em hibernate.session_factory.statement_inspector, instanciado pelo Hibernate.
+ */
+public class DatabaseLatencyInspector implements StatementInspector {
+    static final long DEFAULT_LATENCY_MILLIS = 2;
+    static final long LATENCY_MILLIS = Long.getLong("load.db-latency-millis", DEFAULT_LATENCY_MILLIS);
+
+    @Override
+    public String inspect(String sql) {
+        if (LATENCY_MILLIS > 0) {
+            try {
+                Thread.sleep(LATENCY_MILLIS);//Thread de plataforma fica bloqueada, virtual thread libera a carrier
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.uanderson.springboot.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Gerador de carga em loop fechado: {@code concurrency} clientes (virtual threads, cada um com a sua conexão HTTP)
+ * sorteiam um dos endpoints pelo peso e esperam a resposta antes de enviar a próxima requisição.
+ * <p>
+ * As latências do período de medição (após o aquecimento) vão para um HdrHistogram por endpoint, em microssegundos.
+ * Por ser um loop fechado, a fila no servidor também atrasa o envio das próximas requisições
+ * (coordinated omission): os percentis altos reais tendem a ser ainda maiores.
+ */
+final class LoadGenerator {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadGenerator() {
+    }
+
+    static Result run(String name, HttpRequest request, int concurrency, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Endpoint endpoint = new Endpoint(name, 1, 200, () -> HttpRequest.newBuilder(request, (header, value) -> true));
+        return run(List.of(endpoint), client -> null, concurrency, warmup, duration).getFirst();
+    }
+
+    /**
+     * @param authorization header Authorization de cada cliente (pelo índice do cliente), null para não enviar.
+     * @return o resultado de cada endpoint, na mesma ordem de {@code endpoints}.
+     */
+    static List<Result> run(List<Endpoint> endpoints, IntFunction<String> authorization, int concurrency,
+                            Duration warmup, Duration duration) throws InterruptedException {
+        List<Stats> stats = endpoints.stream().map(Stats::new).toList();
+        int totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+        long measureStart = System.nanoTime() + warmup.toNanos();
+        long end = measureStart + duration.toNanos();
+
+        //Fechados na ordem inversa: primeiro espera os clientes terminarem, depois fecha o HttpClient
+        try (HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                String clientAuthorization = authorization.apply(i);
+                clients.submit(() -> {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        Stats endpointStats = pick(stats, totalWeight);
+                        HttpRequest.Builder request = endpointStats.endpoint.request().get().timeout(REQUEST_TIMEOUT);
+                        if (clientAuthorization != null) {
+                            request.setHeader("Authorization", clientAuthorization);
+                        }
+                        String error = send(httpClient, request.build(), endpointStats.endpoint.expectedStatus());
+                        long elapsedNanos = System.nanoTime() - now;
+                        if (now >= measureStart) {//Aquecimento: JIT, pools e caches, não entra no resultado
+                            endpointStats.record(elapsedNanos, error);
+                        }
+                    }
+                });
+            }
+        }
+        return stats.stream().map(endpointStats -> endpointStats.result(concurrency, duration)).toList();
+    }
+
+    static HttpRequest.Builder get(URI uri) {
+        return HttpRequest.newBuilder(uri).GET();
+    }
+
+    static HttpRequest.Builder json(String method, URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private static Stats pick(List<Stats> stats, int totalWeight) {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Stats endpointStats : stats) {
+            value -= endpointStats.endpoint.weight();
+            if (value < 0) {
+                return endpointStats;
+            }
+        }
+        throw new IllegalStateException("No endpoint with a positive weight");
+    }
+
+    //null quando a requisição retorna o status esperado, caso contrário a descrição do erro
+    private static String send(HttpClient httpClient, HttpRequest request, int expectedStatus) {
+        try {
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status == expectedStatus ? null : "HTTP " + status;
+        } catch (IOException e) {
+            return e.toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e.toString();
+        }
+    }
+
+    /**
+     * @param weight  chance de ser sorteado, relativa à soma dos pesos de todos os endpoints.
+     * @param request nova requisição (sem o Authorization) a cada chamada, ex: com um id aleatório.
+     */
+    record Endpoint(String name, int weight, int expectedStatus, Supplier<HttpRequest.Builder> request) {
+    }
+
+    private static final class Stats {
+        private final Endpoint endpoint;
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final AtomicReference<String> firstError = new AtomicReference<>();
+
+        private Stats(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        private void record(long elapsedNanos, String error) {
+            if (error == null) {
+                recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), HIGHEST_TRACKABLE_MICROS));
+            } else {
+                errors.increment();
+                firstError.compareAndSet(null, error);
+            }
+        }
+
+        private Result result(int concurrency, Duration duration) {
+            return new Result(endpoint.name(), concurrency, recorder.getIntervalHistogram(), errors.sum(),
+                    firstError.get(), duration);
+        }
+    }
+
+    record Result(String name, int concurrency, Histogram latency, long errors, String firstError, Duration duration) {
+
+        double throughput() {
+            return (double) latency.getTotalCount() / duration.toMillis() * 1_000;
+        }
+
+        String summary() {
+            return String.format("%-14s concurrency=%d requests=%d errors=%d throughput=%.0f req/s "
+                            + "p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms",
+                    name, concurrency, latency.getTotalCount(), errors, throughput(),
+                    millis(50), millis(99), millis(99.9), latency.getMaxValue() / 1_000.0)
+                    + (firstError == null ? "" : " firstError=" + firstError);
+        }
+
+        private double millis(double percentile) {
+            return latency.getValueAtPercentile(percentile) / 1_000.0;
+        }
+    }
+}
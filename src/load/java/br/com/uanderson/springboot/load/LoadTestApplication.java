@@ -0,0 +1,36 @@
+package br.com.uanderson.springboot.load;
+
+import br.com.uanderson.springboot.SpringbootEssentialsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sobe a aplicação completa (Tomcat em uma porta aleatória) para os testes de carga, com um banco H2
+ * em memória no lugar do PostgreSQL e sem os logs por requisição/consulta, que dominariam o tempo medido.
+ */
+final class LoadTestApplication {
+
+    private LoadTestApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        List<String> defaults = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "server.port=0",
+                "logging.level.root=warn",
+                "logging.level.org.hibernate.SQL=warn",
+                "logging.level.org.hibernate.type=warn"));
+        defaults.addAll(List.of(properties));//Propriedades do teste sobrescrevem as padrões
+        //Como argumentos de linha de comando (--chave=valor), que têm precedência sobre o application.yml
+        return new SpringApplicationBuilder(SpringbootEssentialsApplication.class)
+                .run(defaults.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,157 @@
+package br.com.uanderson.springboot.load;
+
+import org.HdrHistogram.Histogram;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Carga mista sobre os endpoints reais de /animes e /users, com HTTP Basic e a aplicação completa em um H2
+ * populado com load.animes animes e load.users usuários (metade USER, metade ADMIN).
+ * <p>
+ * Cada cliente usa um dos usuários (Basic, BCrypt só no primeiro acesso graças ao CredentialCache) e sorteia
+ * a próxima requisição pelos pesos de load.mix, no formato {@code endpoint=peso,...}. Endpoints disponíveis:
+ * <ul>
+ *     <li>leituras: animes-page (GET /animes, página aleatória entre as 10 primeiras), anime-by-id (GET /animes/{id}),
+ *     anime-by-name (GET /animes/find), anime-search (GET /animes/search), users (GET /users), user-by-id (GET /users/{id});</li>
+ *     <li>escritas: anime-create (POST /animes), anime-replace (PUT /animes).</li>
+ * </ul>
+ * Parâmetros (-D): load.animes (10000), load.users (100), load.concurrency (200), load.warmup-seconds (10),
+ * load.duration-seconds (30), load.db-latency-millis (2) e load.mix (padrão em {@link #DEFAULT_MIX}).
+ * <p>
+ * Executar: {@code mvn -Pload-tests test -Dtest=MixedWorkloadLoadTest -Dload.mix=anime-by-id=80,anime-replace=20}
+ */
+@DisplayName("Load tests for a mix of /animes and /users requests")
+class MixedWorkloadLoadTest {
+    static final String DEFAULT_MIX = "animes-page=30,anime-by-id=30,anime-by-name=5,anime-search=5,"
+            + "users=5,user-by-id=15,anime-create=5,anime-replace=5";
+    private static final int ANIMES = Integer.getInteger("load.animes", 10_000);
+    private static final int USERS = Integer.getInteger("load.users", 100);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 200);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration-seconds", 30));
+    private static final String MIX = System.getProperty("load.mix", DEFAULT_MIX);
+    private static final String PASSWORD = "load-test";
+
+    @Test
+    @DisplayName("mix of reads and writes on /animes and /users")
+    void mixedWorkload() throws InterruptedException {
+        try (ConfigurableApplicationContext context = LoadTestApplication.start("load-mixed",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + DatabaseLatencyInspector.class.getName())) {
+            seed(context);
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<LoadGenerator.Endpoint> endpoints = endpoints(baseUrl, parseMix(MIX));
+
+            List<LoadGenerator.Result> results = LoadGenerator.run(endpoints,
+                    client -> basic("load-user-" + (client % USERS + 1)), CONCURRENCY, WARMUP, DURATION);
+
+            report(results);
+            Assertions.assertThat(results)
+                    .as("every endpoint of the mix answered with the expected status")
+                    .allSatisfy(result -> Assertions.assertThat(result.latency().getTotalCount()).as(result.name()).isPositive());
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("INSERT INTO anime (id, name) SELECT X, 'Anime ' || X FROM SYSTEM_RANGE(1, ?)", ANIMES);
+        //Sequence pooled (allocationSize = 50): cada valor reserva os 50 ids anteriores, +100 para o POST não colidir
+        jdbcTemplate.execute("ALTER SEQUENCE anime_seq RESTART WITH " + (ANIMES + 100));
+        //Um único BCrypt para todos os usuários, o mesmo PasswordEncoder usado na autenticação
+        String password = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+        jdbcTemplate.update("INSERT INTO dev_dojo_user_details (name, username, password, authorities) "
+                + "SELECT 'Load User ' || X, 'load-user-' || X, ?, "
+                + "CASEWHEN(MOD(X, 2) = 0, 'ROLE_ADMIN,ROLE_USER', 'ROLE_USER') FROM SYSTEM_RANGE(1, ?)", password, USERS);
+    }
+
+    private static List<LoadGenerator.Endpoint> endpoints(String baseUrl, Map<String, Integer> mix) {
+        Map<String, LoadGenerator.Endpoint> available = new LinkedHashMap<>();
+        for (LoadGenerator.Endpoint endpoint : List.of(
+                new LoadGenerator.Endpoint("animes-page", 0, 200,
+                        () -> LoadGenerator.get(uri(baseUrl, "/animes?size=20&page=" + random(0, 9)))),
+                new LoadGenerator.Endpoint("anime-by-id", 0, 200,
+                        () -> LoadGenerator.get(uri(baseUrl, "/animes/" + random(1, ANIMES)))),
+                new LoadGenerator.Endpoint("anime-by-name", 0, 200,
+                        () -> LoadGenerator.get(uri(baseUrl, "/animes/find?name=Anime%20" + random(1, ANIMES)))),
+                new LoadGenerator.Endpoint("anime-search", 0, 200,
+                        () -> LoadGenerator.get(uri(baseUrl, "/animes/search?name=Anime%20" + random(1, ANIMES)))),
+                new LoadGenerator.Endpoint("users", 0, 200,
+                        () -> LoadGenerator.get(uri(baseUrl, "/users"))),
+                new LoadGenerator.Endpoint("user-by-id", 0, 200,
+                        () -> LoadGenerator.get(uri(baseUrl, "/users/" + random(1, USERS)))),
+                new LoadGenerator.Endpoint("anime-create", 0, 201,
+                        () -> LoadGenerator.json("POST", uri(baseUrl, "/animes"), "{\"name\":\"Load Anime\"}")),
+                new LoadGenerator.Endpoint("anime-replace", 0, 204,
+                        () -> LoadGenerator.json("PUT", uri(baseUrl, "/animes"),
+                                "{\"id\":" + random(1, ANIMES) + ",\"name\":\"Replaced Anime\"}")))) {
+            available.put(endpoint.name(), endpoint);
+        }
+
+        List<LoadGenerator.Endpoint> endpoints = new ArrayList<>();
+        mix.forEach((name, weight) -> {
+            LoadGenerator.Endpoint endpoint = available.get(name);
+            if (endpoint == null) {
+                throw new IllegalArgumentException("Unknown endpoint '" + name + "' in load.mix, available: " + available.keySet());
+            }
+            endpoints.add(new LoadGenerator.Endpoint(name, weight, endpoint.expectedStatus(), endpoint.request()));
+        });
+        return endpoints;
+    }
+
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] nameAndWeight = entry.trim().split("=");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry '" + entry + "', expected endpoint=weight");
+            }
+            int weight = Integer.parseInt(nameAndWeight[1].trim());
+            if (weight > 0) {
+                weights.put(nameAndWeight[0].trim(), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix has no endpoint with a positive weight: " + mix);
+        }
+        return weights;
+    }
+
+    private static void report(List<LoadGenerator.Result> results) {
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        for (LoadGenerator.Result result : results) {
+            total.add(result.latency());
+            errors += result.errors();
+        }
+        System.out.printf("%nMixed workload: %d animes, %d users, %d connections, db latency=%dms per statement, mix=%s%n",
+                ANIMES, USERS, CONCURRENCY, DatabaseLatencyInspector.LATENCY_MILLIS, MIX);
+        results.forEach(result -> System.out.println(result.summary()));
+        System.out.println(new LoadGenerator.Result("total", CONCURRENCY, total, errors, null, DURATION).summary());
+    }
+
+    private static String basic(String username) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static URI uri(String baseUrl, String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static int random(int from, int to) {
+        return ThreadLocalRandom.current().nextInt(from, to + 1);
+    }
+}
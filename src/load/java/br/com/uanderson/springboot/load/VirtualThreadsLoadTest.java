@@ -0,0 +1,90 @@
+package br.com.uanderson.springboot.load;
+
+import br.com.uanderson.springboot.security.GrantedAuthorityPool;
+import br.com.uanderson.springboot.security.TokenService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara a execução das requisições em threads de plataforma (pool do Tomcat, server.tomcat.threads.max)
+ * e em virtual threads (spring.threads.virtual.enabled) com o mesmo pool do Hikari.
+ * <p>
+ * Cenário: GET /animes paginado (SELECT + COUNT), autenticado com token, com latência simulada por
+ * statement (DatabaseLatencyInspector). Parâmetros (-D): load.concurrency (1000), load.warmup-seconds (10),
+ * load.duration-seconds (30), load.pool-size (20), load.db-latency-millis (2) e load.path (/animes?page=10&size=20).
+ * <p>
+ * O gerador de carga roda na mesma JVM e disputa a CPU com a aplicação: compare os modos entre si,
+ * não com os números de produção.
+ */
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Load tests for platform threads vs virtual threads")
+class VirtualThreadsLoadTest {
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1_000);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration-seconds", 30));
+    private static final int POOL_SIZE = Integer.getInteger("load.pool-size", 20);
+    private static final String PATH = System.getProperty("load.path", "/animes?page=10&size=20");
+    private static final int ANIMES = 1_000;
+    private static final List<LoadGenerator.Result> RESULTS = new ArrayList<>();
+
+    @Test
+    @Order(1)
+    @DisplayName("GET /animes with platform threads")
+    void listAllPageable_WithPlatformThreads() throws InterruptedException {
+        RESULTS.add(run("platform", false));
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("GET /animes with virtual threads")
+    void listAllPageable_WithVirtualThreads() throws InterruptedException {
+        RESULTS.add(run("virtual", true));
+    }
+
+    @AfterAll
+    static void report() {
+        System.out.printf("%nGET %s, %d connections, pool=%d, db latency=%dms per statement%n",
+                PATH, CONCURRENCY, POOL_SIZE, DatabaseLatencyInspector.LATENCY_MILLIS);
+        RESULTS.forEach(result -> System.out.println(result.summary()));
+    }
+
+    private static LoadGenerator.Result run(String mode, boolean virtualThreads) throws InterruptedException {
+        try (ConfigurableApplicationContext context = LoadTestApplication.start("load-" + mode,
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + DatabaseLatencyInspector.class.getName())) {
+            context.getBean(JdbcTemplate.class)
+                    .update("INSERT INTO anime (id, name) SELECT X, 'Anime ' || X FROM SYSTEM_RANGE(1, ?)", ANIMES);
+            //Token emitido direto pelo TokenService: sem usuário no banco e sem BCrypt durante a carga
+            String token = context.getBean(TokenService.class).issue(UsernamePasswordAuthenticationToken
+                    .authenticated("load-test", null, List.of(GrantedAuthorityPool.ROLE_USER)));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATH))
+                    .header("Authorization", TokenService.TOKEN_TYPE + " " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            LoadGenerator.Result result = LoadGenerator.run(mode, request, CONCURRENCY, WARMUP, DURATION);
+
+            System.out.println(result.summary());
+            Assertions.assertThat(result.latency().getTotalCount()).as("successful requests").isPositive();
+            return result;
+        }
+    }
+}
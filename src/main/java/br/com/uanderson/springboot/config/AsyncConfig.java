@@ -0,0 +1,14 @@
+package br.com.uanderson.springboot.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Ativa o @Async. Os métodos anotados (e as respostas assíncronas do Spring MVC, como o StreamingResponseBody)
+ * rodam no applicationTaskExecutor do Spring Boot: um pool de threads de plataforma ou, com
+ * spring.threads.virtual.enabled=true, uma nova virtual thread por tarefa.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
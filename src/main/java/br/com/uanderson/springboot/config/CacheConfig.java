@@ -0,0 +1,68 @@
+package br.com.uanderson.springboot.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Caches da aplicação (Spring Cache + Caffeine), cada um com o seu limite de tamanho e TTL.
+ * <p>
+ * O Spring Boot Actuator registra automaticamente as métricas dos caches do CacheManager
+ * (cache_gets_total{result="hit|miss"}, cache_evictions_total, cache_size...) e aqui é
+ * adicionado o gauge cache_hit_ratio, já calculado pelo Caffeine.
+ */
+@Configuration
+@EnableCaching//Ativa as anotações @Cacheable, @CachePut e @CacheEvict
+public class CacheConfig {
+    public static final String USER_DETAILS_CACHE = "userDetails";
+    public static final String ANIMES_CACHE = "animes";
+    public static final String MISSING_ANIMES_CACHE = "missingAnimes";
+
+    @Bean
+    public CacheManager cacheManager(MeterRegistry meterRegistry,
+                                     @Value("${app.cache.user-details.maximum-size:1000}") long userDetailsMaximumSize,
+                                     @Value("${app.cache.user-details.ttl:10m}") Duration userDetailsTtl,
+                                     @Value("${app.cache.animes.maximum-size:10000}") long animesMaximumSize,
+                                     @Value("${app.cache.animes.ttl:10m}") Duration animesTtl,
+                                     @Value("${app.cache.missing-animes.maximum-size:100000}") long missingAnimesMaximumSize,
+                                     @Value("${app.cache.missing-animes.ttl:30s}") Duration missingAnimesTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        registerCache(cacheManager, meterRegistry, USER_DETAILS_CACHE, userDetailsMaximumSize, userDetailsTtl);
+        registerCache(cacheManager, meterRegistry, ANIMES_CACHE, animesMaximumSize, animesTtl);
+        registerCache(cacheManager, meterRegistry, MISSING_ANIMES_CACHE, missingAnimesMaximumSize, missingAnimesTtl);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+        /*
+         Os caches são registrados explicitamente (registerCustomCache), sendo assim
+         o CaffeineCacheManager não cria caches dinâmicos para nomes desconhecidos.
+         TransactionAwareCacheManagerProxy: dentro de uma transação, os put/evict só são aplicados após o
+         commit, sendo assim um rollback não deixa no cache um valor que não foi salvo no banco.
+         */
+    }
+
+    private static void registerCache(CaffeineCacheManager cacheManager, MeterRegistry meterRegistry,
+                                      String name, long maximumSize, Duration ttl) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)//Ao atingir o limite, o Caffeine descarta pelo W-TinyLFU (menos usados)
+                .recordStats();
+        if (!ttl.isZero()) {//ttl: 0 desativa a expiração por tempo
+            builder.expireAfterWrite(ttl);
+        }
+        Cache<Object, Object> cache = builder.build();
+        cacheManager.registerCustomCache(name, cache);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Fraction of cache requests that were hits")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.uanderson.springboot.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Realinha a anime_seq do banco criado pelo ddl-auto (dev), após o Hibernate gerar/atualizar o schema.
+ * <p>
+ * Apenas no PostgreSQL. A aplicação não cria índices: no prd os índices do nome (idx_anime_name e o trigram) vêm
+ * das migrações do Flyway (db/migration), em dev a busca por prefixo/trecho funciona sem o índice trigram.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class DatabaseSchemaInitializer implements SmartInitializingSingleton {
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!POSTGRESQL.equals(databaseProductName())) {
+            return;
+        }
+        try {
+            //Tabela anime criada com IDENTITY: a anime_seq nova começa em 1, então é movida para depois do maior id
+            jdbcTemplate.execute("SELECT setval('anime_seq', (SELECT max(id) FROM anime) + 50) "
+                    + "WHERE (SELECT max(id) FROM anime) >= (SELECT last_value FROM anime_seq)");
+        } catch (DataAccessException e) {
+            log.warn("Could not realign the anime_seq sequence: {}", e.getMostSpecificCause().getMessage());
+        }
+        /*
+        Roda depois de todos os singletons (o EntityManagerFactory já criou a anime_seq pelo ddl-auto) e antes do
+        servidor web subir: nenhum POST chega com a sequence ainda atrás dos ids existentes.
+        No profile prd a anime_seq é criada e alinhada pela migração db/migration/V2__anime_id_sequence.sql
+        (Flyway, também antes do Hibernate), e aqui a condição do WHERE não atualiza nada.
+         */
+    }
+
+    private String databaseProductName() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName();
+        } catch (SQLException e) {
+            log.warn("Could not detect the database: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.uanderson.springboot.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Logs das requisições HTTP. O Log4j2 (assíncrono, garbage-free) é configurado em log4j2-spring.xml
+ * e log4j2.component.properties.
+ */
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public FilterRegistrationBean<SampledRequestLoggingFilter> sampledRequestLoggingFilter(
+            @Value("${app.logging.request.sample-rate:0.01}") double sampleRate,
+            @Value("${app.logging.request.slow-threshold:1s}") Duration slowThreshold) {
+        FilterRegistrationBean<SampledRequestLoggingFilter> registration =
+                new FilterRegistrationBean<>(new SampledRequestLoggingFilter(sampleRate, slowThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);//Inclui o tempo da autenticação (Spring Security)
+        return registration;
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.uanderson.springboot.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Métricas de latência além das padrões do Spring Boot (http.server.requests e spring.data.repository.invocations,
+ * esta com um timer por método dos repositories).
+ * <p>
+ * O TimedAspect registra os métodos das classes anotadas com @Timed(SERVICE_TIMER) no timer app.service,
+ * com as tags class, method e exception. Os histogramas e os buckets de SLO dos três timers ficam em
+ * management.metrics.distribution.* no application.yml, usados pelo dashboard do Grafana.
+ */
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "app.service";
+    public static final String BAD_REQUESTS_COUNTER = "app.bad.requests";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
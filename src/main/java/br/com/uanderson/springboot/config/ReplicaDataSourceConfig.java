@@ -0,0 +1,75 @@
+package br.com.uanderson.springboot.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Réplica de leitura, ativada apenas quando app.datasource.replica.url é informado (vazio = só o spring.datasource).
+ * <p>
+ * Dois pools Hikari (primary e replica, ambos com as métricas hikaricp_* do Actuator) atrás do
+ * ReplicaRoutingDataSource: @Transactional(readOnly = true) na réplica, o resto no primário.
+ * Como o DataSource é declarado aqui, o Spring Boot não cria o dele, o primário continua configurado
+ * por spring.datasource.* e spring.datasource.hikari.*.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replica.url:}'.isBlank()")
+@Log4j2
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replica.maximum-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int maximumPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setReadOnly(true);//Conexões somente leitura: uma escrita enviada por engano falha em vez de divergir
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.datasource.replica.lag-query}") String lagQuery,
+                                 @Value("${app.datasource.replica.max-lag:1s}") Duration maxLag,
+                                 @Value("${app.datasource.replica.lag-check-interval:1s}") Duration lagCheckInterval) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource,
+                lagQuery, maxLag, lagCheckInterval, Clock.systemUTC());
+        Gauge.builder("datasource.replica.lag", routingDataSource, ReplicaRoutingDataSource::getLagSeconds)
+                .description("Last measured replication lag of the read replica, NaN when it did not answer")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        log.info("Read replica enabled: maxLag={}, lagCheckInterval={}", maxLag, lagCheckInterval);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
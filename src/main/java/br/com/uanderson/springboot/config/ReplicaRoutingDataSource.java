@@ -0,0 +1,129 @@
+package br.com.uanderson.springboot.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Envia as transações somente leitura (@Transactional(readOnly = true)) para a réplica e as demais para o primário.
+ * <p>
+ * Volta para o primário (fallback) quando:
+ * <ul>
+ *     <li>o atraso da réplica (lag-query) passa do max-lag, ou a réplica não responde;</li>
+ *     <li>uma transação de escrita desta instância terminou há menos de max-lag (read-your-writes): assim
+ *     os caches e as ETags (AnimeTableVersion) não são preenchidos com linhas que a réplica ainda não recebeu.</li>
+ * </ul>
+ * Deve ficar atrás de um LazyConnectionDataSourceProxy: o JpaTransactionManager pede a conexão ao iniciar a
+ * transação, antes de marcá-la como readOnly, o proxy só escolhe o banco no primeiro comando SQL.
+ */
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration lagCheckInterval;
+    private final Clock clock;
+    private final AtomicBoolean checkingLag = new AtomicBoolean();
+
+    private volatile Instant lastWriteAt = Instant.MIN;
+    private volatile Instant lagCheckedAt = Instant.MIN;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean replicaUsable;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, String lagQuery,
+                                    Duration maxLag, Duration lagCheckInterval, Clock clock) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.lagCheckInterval = lagCheckInterval;
+        this.clock = clock;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lastWriteAt = clock.instant();
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+        return isReplicaUsable() ? Target.REPLICA : Target.PRIMARY;
+        /*
+        Fora de uma transação (ex: JdbcTemplate sem @Transactional, criação do schema) vai sempre para o primário.
+        Qualquer transação que não é readOnly conta como escrita, mesmo que só tenha lido (a favor do primário).
+         */
+    }
+
+    /**
+     * @return o último atraso medido da réplica em segundos, NaN quando a réplica não respondeu.
+     */
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    private boolean isReplicaUsable() {
+        Instant now = clock.instant();
+        if (now.isBefore(lastWriteAt.plus(maxLag))) {
+            return false;
+        }
+        if (!now.isBefore(lagCheckedAt.plus(lagCheckInterval)) && checkingLag.compareAndSet(false, true)) {
+            try {
+                checkLag();
+            } finally {
+                lagCheckedAt = now;
+                checkingLag.set(false);
+            }
+        }
+        return replicaUsable;
+        /*
+        O lag é consultado no máximo uma vez por lag-check-interval, por uma única requisição:
+        as demais usam o último resultado em vez de esperar pela consulta.
+         */
+    }
+
+    private void checkLag() {
+        boolean usable;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;//NULL = 0, ex: a réplica não está em recovery
+            usable = lagSeconds <= maxLag.toMillis() / 1000.0;
+        } catch (SQLException | RuntimeException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            log.debug("Replica lag check failed", e);
+        }
+        if (usable && !replicaUsable) {
+            log.info("Read-only transactions routed to the replica, lag {}s", lagSeconds);
+        } else if (!usable && replicaUsable) {
+            log.warn("Read-only transactions routed to the primary, replica lag {}s exceeds {} or the replica is down",
+                    lagSeconds, maxLag);
+        }
+        replicaUsable = usable;
+    }
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.uanderson.springboot.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.apache.logging.log4j.util.Unbox;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log das requisições por amostragem: uma linha (método, caminho, status e tempo) para cada sample-rate das requisições,
+ * no lugar de uma linha em toda requisição. Erros (5xx ou exceção) e requisições acima de slow-threshold
+ * são sempre logados.
+ * <p>
+ * Não é um @Component, registrado pelo LoggingConfig com a ordem antes do Spring Security.
+ */
+@Log4j2
+public class SampledRequestLoggingFilter extends OncePerRequestFilter {
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    /**
+     * @param sampleRate fração das requisições logadas, entre 0 (só erros e lentas) e 1 (todas).
+     */
+    public SampledRequestLoggingFilter(double sampleRate, Duration slowThreshold) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("app.logging.request.sample-rate must be between 0 and 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            int status = response.getStatus();
+            if (shouldLog(status, elapsedNanos, failed)) {
+                log.info("{} {} status={} time={}ms", request.getMethod(), request.getRequestURI(),
+                        Unbox.box(failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : status),
+                        Unbox.box(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)));
+            }
+        }
+        /*
+        Unbox.box: status e tempo sem criar um Integer/Long a cada log (buffer reaproveitado do modo garbage-free).
+        Só o caminho, sem a query string, que pode ter dados do usuário.
+         */
+    }
+
+    boolean shouldLog(int status, long elapsedNanos, boolean failed) {
+        return failed
+                || status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                || elapsedNanos >= slowThresholdNanos
+                || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
@@ -1,6 +1,11 @@
 package br.com.uanderson.springboot.config;
 
+import br.com.uanderson.springboot.security.CachingAuthenticationManager;
+import br.com.uanderson.springboot.security.CredentialCache;
+import br.com.uanderson.springboot.security.TokenAuthenticationFilter;
+import br.com.uanderson.springboot.security.TokenService;
 import br.com.uanderson.springboot.service.DevDojoUserDetailsService;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.context.annotation.Bean;
@@ -24,7 +29,10 @@ import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
 
 /**
  * Spring boot security documentation:
@@ -38,6 +46,8 @@ import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 public class SecurityConfig {
 
     private final DevDojoUserDetailsService devDojoUserDetailsService;
+    private final CredentialCache credentialCache;
+    private final TokenService tokenService;
 
     /**
      * ALGUNS FILTROS EXISTENTES NO SPRING SECURITY, QUE FAZEM
@@ -58,6 +68,8 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable);//desabilitando o CSRF (cenário de estudo)
         http.authorizeHttpRequests((authorize -> authorize
+                        //Erros (500, timeout do pool...) encaminhados ao /error: sem isso o token não é validado de novo e vira 401
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                         .requestMatchers("/animes/admin/**").hasRole("ADMIN")//A Ordem de declaração é importante
                         .requestMatchers("/animes/**").hasRole("USER")
                         .requestMatchers(
@@ -67,11 +79,17 @@ public class SecurityConfig {
                                 "/swagger-ui.html",
                                 "/webjars/**"
                         ).permitAll()
+                        .requestMatchers("/actuator/slowqueries/**").hasRole("ADMIN")//Texto dos SQLs: leitura e limpeza só ADMIN
+                        .requestMatchers(HttpMethod.DELETE, "/actuator/**").hasRole("ADMIN")
                         .requestMatchers("/actuator/**").permitAll()
                         .anyRequest().authenticated())
                 )
                 .httpBasic(Customizer.withDefaults())
                 .logout(Customizer.withDefaults());
+        //Token (Bearer) emitido em POST /auth/token, validado localmente sem banco de dados e sem BCrypt
+        http.addFilterBefore(new TokenAuthenticationFilter(tokenService, new OrRequestMatcher(
+                new AntPathRequestMatcher("/animes/**"),
+                new AntPathRequestMatcher("/users/**"))), BasicAuthenticationFilter.class);
         return http.build();
         /*
             Neste primeiro momento está dizendo que qualquer
@@ -110,7 +128,7 @@ public class SecurityConfig {
         ProviderManager providerManager = new ProviderManager(inMemoryProvider, databaseProvider); // Cria um ProviderManager com os provedores de autenticação configurados
         providerManager.setEraseCredentialsAfterAuthentication(false); // Define se as credenciais devem ser apagadas após a autenticação
 
-        return providerManager; // Retorna o ProviderManager configurado como AuthenticationManager
+        return new CachingAuthenticationManager(providerManager, credentialCache); // Retorna o ProviderManager (com cache das credenciais já verificadas) como AuthenticationManager
         /*
          * Configura um AuthenticationManager que suporta autenticação em memória e no banco de dados.
          *
@@ -128,6 +146,10 @@ public class SecurityConfig {
          *
          * Os provedores configurados são então adicionados a um ProviderManager, que é retornado
          * como o AuthenticationManager configurado.
+         *
+         * O ProviderManager é envolvido pelo CachingAuthenticationManager: o BCrypt só é executado
+         * na primeira requisição de cada (username, password), as seguintes são respondidas pelo
+         * CredentialCache até o TTL expirar ou o usuário ser alterado/removido.
          */
 
     }
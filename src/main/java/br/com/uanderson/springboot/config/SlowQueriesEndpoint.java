@@ -0,0 +1,28 @@
+package br.com.uanderson.springboot.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * GET /actuator/slowqueries: os statements SQL mais lentos (acima de app.sql.slow-threshold), do mais lento para o
+ * mais rápido. DELETE /actuator/slowqueries limpa a lista (ex: depois de um deploy ou de criar um índice).
+ */
+@Endpoint(id = "slowqueries")
+@RequiredArgsConstructor
+public class SlowQueriesEndpoint {
+    private final SqlStatementTracker sqlStatementTracker;
+
+    @ReadOperation
+    public List<SqlStatementTracker.SlowStatement> slowQueries() {
+        return sqlStatementTracker.slowestStatements();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatementTracker.resetSlowStatements();
+    }
+}
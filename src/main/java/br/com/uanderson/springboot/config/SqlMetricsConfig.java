@@ -0,0 +1,108 @@
+package br.com.uanderson.springboot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.Filter;
+import org.hibernate.Session;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.lang.Nullable;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Registra o SqlStatementTracker no Hibernate e nas requisições HTTP, além do endpoint /actuator/slowqueries.
+ * <p>
+ * As estatísticas do próprio Hibernate (hibernate_sessions_open_total, hibernate_query_executions_total,
+ * hibernate_statements_total...) são exportadas pelo Spring Boot com o hibernate-micrometer, quando
+ * hibernate.generate_statistics=true (application.yml).
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    public SqlStatementTracker sqlStatementTracker(MeterRegistry meterRegistry,
+                                                   @Value("${app.sql.slow-threshold:200ms}") Duration slowThreshold,
+                                                   @Value("${app.sql.slow-top:20}") int slowTop,
+                                                   @Value("${app.sql.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        return new SqlStatementTracker(meterRegistry, slowThreshold, slowTop, nPlusOneThreshold, Clock.systemUTC());
+    }
+
+    @Bean
+    public SlowQueriesEndpoint slowQueriesEndpoint(SqlStatementTracker sqlStatementTracker) {
+        return new SlowQueriesEndpoint(sqlStatementTracker);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspectorCustomizer(SqlStatementTracker sqlStatementTracker) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementTracker.statementInspector(
+                configuredStatementInspector(properties.get(AvailableSettings.STATEMENT_INSPECTOR))));
+        /*
+        O Hibernate aceita um único StatementInspector: o que já estiver configurado em
+        spring.jpa.properties.hibernate.session_factory.statement_inspector (ex: o DatabaseLatencyInspector dos
+        testes de carga) continua sendo chamado, antes do tracker.
+         */
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlStatementListenerPostProcessor(ObjectProvider<SqlStatementTracker> sqlStatementTracker) {
+        Supplier<SqlStatementTracker> tracker = SingletonSupplier.of(sqlStatementTracker::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactoryBean) {
+                    entityManagerFactoryBean.setEntityManagerInitializer(entityManager -> entityManager.unwrap(Session.class)
+                            .addEventListeners(tracker.get().sessionEventListener()));
+                }
+                return bean;
+            }
+        };
+        /*
+        O listener é por sessão (EntityManager), já o hibernate.session.events.auto só aceita o nome de uma classe.
+        static e ObjectProvider: o BeanPostProcessor é criado antes dos outros beans e não pode
+        antecipar o MeterRegistry (que ficaria sem os MeterFilters e as tags comuns).
+         */
+    }
+
+    @Bean
+    public FilterRegistrationBean<Filter> sqlStatementsFilter(SqlStatementTracker sqlStatementTracker) {
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+            boolean started = sqlStatementTracker.begin();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                if (started) {
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    sqlStatementTracker.end(pattern == null ? "UNKNOWN" : pattern.toString());
+                }
+            }
+        });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);//Antes do Spring Security: inclui a busca do usuário (Basic)
+        return registration;
+    }
+
+    @Nullable
+    private static StatementInspector configuredStatementInspector(@Nullable Object setting) {
+        if (setting == null || setting instanceof StatementInspector) {
+            return (StatementInspector) setting;
+        }
+        Class<?> inspectorClass = setting instanceof Class<?> clazz
+                ? clazz
+                : ClassUtils.resolveClassName(setting.toString(), ClassUtils.getDefaultClassLoader());
+        return (StatementInspector) BeanUtils.instantiateClass(inspectorClass);
+    }
+}
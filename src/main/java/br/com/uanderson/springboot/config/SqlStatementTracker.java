@@ -0,0 +1,248 @@
+package br.com.uanderson.springboot.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.lang.Nullable;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas dos statements SQL executados pelo Hibernate, no lugar do show-sql/org.hibernate.SQL: debug.
+ * <p>
+ * O StatementInspector guarda o SQL que vai ser preparado e o SessionEventListener (um por sessão) mede a execução,
+ * os dois são chamados na mesma thread. Um batch (executeBatch) pode ter mais de um SQL e ser executado depois de
+ * outros statements preparados, então é registrado como {@value #BATCH} e não como o último SQL preparado.
+ * Para cada execução:
+ * <ul>
+ *     <li>app.sql.execution: tempo de todos os statements (sem o SQL nas tags), tag type statement ou batch;</li>
+ *     <li>acima do slow-threshold: log WARN, app.sql.slow e os mais lentos em GET /actuator/slowqueries;</li>
+ *     <li>dentro de uma requisição HTTP (begin/end): app.sql.request.statements por uri e, quando o mesmo SELECT
+ *     é executado n-plus-one-threshold vezes ou mais, log WARN e app.sql.n.plus.one (possível N+1).</li>
+ * </ul>
+ */
+@Log4j2
+public class SqlStatementTracker {
+    public static final String EXECUTION_TIMER = "app.sql.execution";
+    public static final String SLOW_COUNTER = "app.sql.slow";
+    public static final String REQUEST_STATEMENTS_SUMMARY = "app.sql.request.statements";
+    public static final String N_PLUS_ONE_COUNTER = "app.sql.n.plus.one";
+    public static final String BATCH = "batch";
+    static final int MAX_SLOW_STATEMENTS = 1000;
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final int slowTop;
+    private final int nPlusOneThreshold;
+    private final Clock clock;
+    private final Timer statementTimer;
+    private final Timer batchTimer;
+    private final Counter slowCounter;
+    private final Map<String, SlowStatementStats> slowStatements = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> preparedSql = new ThreadLocal<>();
+    private final ThreadLocal<Map<String, Integer>> requestStatements = new ThreadLocal<>();
+
+    public SqlStatementTracker(MeterRegistry meterRegistry, Duration slowThreshold, int slowTop,
+                               int nPlusOneThreshold, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.slowTop = slowTop;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.clock = clock;
+        this.statementTimer = Timer.builder(EXECUTION_TIMER)
+                .description("Execution time of the SQL statements sent by Hibernate")
+                .tag("type", "statement")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder(EXECUTION_TIMER)
+                .description("Execution time of the SQL statements sent by Hibernate")
+                .tag("type", BATCH)
+                .register(meterRegistry);
+        this.slowCounter = Counter.builder(SLOW_COUNTER)
+                .description("SQL statements slower than app.sql.slow-threshold")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param delegate StatementInspector já configurado (ex: hibernate.session_factory.statement_inspector), ou null.
+     * @return o StatementInspector a ser registrado no Hibernate, chamando antes o delegate.
+     */
+    public StatementInspector statementInspector(@Nullable StatementInspector delegate) {
+        return sql -> {
+            String inspected = delegate == null ? sql : delegate.inspect(sql);
+            preparedSql.set(inspected);
+            return inspected;
+        };
+    }
+
+    /**
+     * @return um novo listener, que deve ser adicionado a cada sessão (não é thread-safe).
+     */
+    public SessionEventListener sessionEventListener() {
+        return new SessionEventListener() {
+            private long startNanos;
+
+            @Override
+            public void jdbcExecuteStatementStart() {
+                startNanos = System.nanoTime();
+            }
+
+            @Override
+            public void jdbcExecuteStatementEnd() {
+                executed(preparedSql.get(), System.nanoTime() - startNanos);
+            }
+
+            @Override
+            public void jdbcExecuteBatchStart() {
+                startNanos = System.nanoTime();
+            }
+
+            @Override
+            public void jdbcExecuteBatchEnd() {
+                executedBatch(System.nanoTime() - startNanos);
+            }
+        };
+    }
+
+    void executed(@Nullable String sql, long elapsedNanos) {
+        statementTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (sql != null) {
+            track(sql, elapsedNanos);
+        }
+    }
+
+    void executedBatch(long elapsedNanos) {
+        batchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        track(BATCH, elapsedNanos);
+    }
+
+    private void track(String sql, long elapsedNanos) {
+        Map<String, Integer> statements = requestStatements.get();
+        if (statements != null) {
+            statements.merge(sql, 1, Integer::sum);
+        }
+        if (elapsedNanos >= slowThresholdNanos) {
+            slowCounter.increment();
+            log.warn("Slow SQL statement ({} ms): {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), sql);
+            if (slowStatements.size() < MAX_SLOW_STATEMENTS || slowStatements.containsKey(sql)) {
+                Instant executedAt = clock.instant();
+                slowStatements.compute(sql, (key, stats) ->
+                        (stats == null ? new SlowStatementStats(key) : stats).record(elapsedNanos, executedAt));
+            }
+        }
+        /*
+        O SQL vem com os parâmetros como '?', sendo assim cada consulta (e não cada valor) é uma entrada do mapa.
+        Limite de MAX_SLOW_STATEMENTS SQLs distintos: acima disso os novos só entram no contador e no log.
+         */
+    }
+
+    /**
+     * Início de uma requisição HTTP nesta thread.
+     *
+     * @return false quando já existe uma requisição em andamento na thread (ex: forward), que continua a contagem.
+     */
+    public boolean begin() {
+        if (requestStatements.get() != null) {
+            return false;
+        }
+        requestStatements.set(new HashMap<>());
+        return true;
+    }
+
+    /**
+     * Fim da requisição iniciada em {@link #begin()}: registra os statements executados e os possíveis N+1.
+     *
+     * @param uri padrão da rota (ex: /animes/{id}), nunca o caminho com os valores.
+     */
+    public void end(String uri) {
+        Map<String, Integer> statements = requestStatements.get();
+        requestStatements.remove();
+        preparedSql.remove();
+        if (statements == null) {
+            return;
+        }
+        DistributionSummary.builder(REQUEST_STATEMENTS_SUMMARY)
+                .description("SQL statements executed per HTTP request")
+                .baseUnit("statements")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.values().stream().mapToInt(Integer::intValue).sum());
+        statements.forEach((sql, executions) -> {
+            if (executions >= nPlusOneThreshold && isSelect(sql)) {
+                meterRegistry.counter(N_PLUS_ONE_COUNTER, "uri", uri).increment();
+                log.warn("Possible N+1 in {}: the same query was executed {} times: {}", uri, executions, sql);
+            }
+        });
+        /*
+        Só SELECTs: os inserts/updates em lote (batch_size) repetem o mesmo SQL a cada lote de propósito.
+         */
+    }
+
+    /**
+     * @return os slow-top statements mais lentos (pelo maior tempo) desde o início ou o último {@link #resetSlowStatements()}.
+     */
+    public List<SlowStatement> slowestStatements() {
+        return slowStatements.values().stream()
+                .map(SlowStatementStats::snapshot)
+                .sorted(Comparator.comparingDouble(SlowStatement::maxMillis).reversed())
+                .limit(slowTop)
+                .toList();
+    }
+
+    public void resetSlowStatements() {
+        slowStatements.clear();
+    }
+
+    private static boolean isSelect(String sql) {
+        String statement = sql.stripLeading();
+        while (statement.startsWith("/*") && statement.contains("*/")) {//Comentários (hibernate.use_sql_comments)
+            statement = statement.substring(statement.indexOf("*/") + 2).stripLeading();
+        }
+        statement = statement.toLowerCase(Locale.ROOT);
+        return statement.startsWith("select") || statement.startsWith("with");
+    }
+
+    /**
+     * Um statement lento, com o SQL sem os valores dos parâmetros.
+     */
+    public record SlowStatement(String sql, long executions, double maxMillis, double averageMillis,
+                                Instant lastExecutedAt) {
+    }
+
+    private static final class SlowStatementStats {
+        private final String sql;
+        private long executions;
+        private long totalNanos;
+        private long maxNanos;
+        private Instant lastExecutedAt;
+
+        private SlowStatementStats(String sql) {
+            this.sql = sql;
+        }
+
+        private synchronized SlowStatementStats record(long elapsedNanos, Instant executedAt) {
+            executions++;
+            totalNanos += elapsedNanos;
+            maxNanos = Math.max(maxNanos, elapsedNanos);
+            lastExecutedAt = executedAt;
+            return this;
+        }
+
+        private synchronized SlowStatement snapshot() {
+            return new SlowStatement(sql, executions, maxNanos / 1_000_000.0,
+                    totalNanos / 1_000_000.0 / executions, lastExecutedAt);
+        }
+    }
+}
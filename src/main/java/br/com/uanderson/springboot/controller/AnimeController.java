@@ -1,29 +1,48 @@
 package br.com.uanderson.springboot.controller;
 
 import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.projection.AnimeView;
 import br.com.uanderson.springboot.requests.AnimePostRequestBody;
 import br.com.uanderson.springboot.requests.AnimePutRequestBody;
+import br.com.uanderson.springboot.responses.AnimeBatchResponse;
+import br.com.uanderson.springboot.exception.BadRequestException;
 import br.com.uanderson.springboot.service.AnimeService;
-import br.com.uanderson.springboot.util.DateUtil;
+import br.com.uanderson.springboot.wrapper.CountType;
+import br.com.uanderson.springboot.wrapper.CursorPage;
+import br.com.uanderson.springboot.wrapper.PageableResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springdoc.core.annotations.ParameterObject;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.List;
 
 @RestController
@@ -32,29 +51,107 @@ import java.util.List;
 @RequiredArgsConstructor //Cria um construtor com todos os atributos finais de um class
 //@AllArgsConstructor//Cria um construtor com todos os atributos não finais de uma class
 public class AnimeController {
-    private final DateUtil dateUtil;
     private final AnimeService animeService;
+    private final ObjectMapper objectMapper;
+    private final AnimePageCache animePageCache;
+
+    //O cliente pode guardar a resposta, mas deve revalidar (If-None-Match) antes de usá-la
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
 
     @GetMapping(path = "/all")
     @Operation(summary = "List all animes without pagination", description = "Returns a list of all animes")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful Operation")
     })
-    public ResponseEntity<List<Anime>> listAllNoPageable() {
-        log.info(dateUtil.formatLocalDateTimeToDatabaseStyle(LocalDateTime.now()));
-        return ResponseEntity.ok(animeService.listAllNoPageable());
+    public ResponseEntity<List<AnimeView>> listAllNoPageable(WebRequest webRequest) {
+        if (webRequest.checkNotModified(animeService.findTableVersion())) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(animeService.listAllNoPageable());
+    }
+
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all animes as NDJSON", description = "Streams every anime, one JSON object per line, "
+            + "with constant memory regardless of the number of animes. Use the header Accept: application/x-ndjson")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation")
+    })
+    public ResponseEntity<StreamingResponseBody> streamAll(WebRequest webRequest) {
+        //Outra representação da mesma URL (/animes/all), a ETag precisa ser diferente da do JSON
+        if (webRequest.checkNotModified(animeService.findTableVersion() + "-ndjson")) {
+            return null;
+        }
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);//Separador entre os objetos é o '\n' abaixo
+                animeService.streamAll(anime -> {
+                    try {
+                        generator.writeObject(anime);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).cacheControl(REVALIDATE).body(body);
+        /*
+        Mesmo endpoint do listAllNoPageable, escolhido pelo header Accept (application/x-ndjson).
+        StreamingResponseBody: a resposta é escrita em outra thread (requisição assíncrona) enquanto os animes
+        são lidos do banco, sem montar a lista inteira na memória. Timeout em spring.mvc.async.request-timeout.
+        NDJSON (newline delimited JSON): um objeto JSON por linha, o cliente também pode processar linha a linha.
+         */
     }
 
     @GetMapping()
     @Operation(
             summary = "List all animes paginated",
-            description = "The default size is 5, use the parameter size to change the default value",
+            description = "The default size is 5, use the parameter size to change the default value. "
+                    + "Use count=false to skip the total count: totalElements and totalPages are not returned, "
+                    + "use 'last' to know if there is a next page. "
+                    + "countType chooses how totalElements is obtained (EXACT, CACHED or ESTIMATED, default from "
+                    + "app.anime.count.type) and totalElementsType tells which one was used",
             tags = {"anime"}
     )
-    public ResponseEntity<Page<Anime>> listAllPageable(@ParameterObject Pageable pageable) {
-        log.info(dateUtil.formatLocalDateTimeToDatabaseStyle(LocalDateTime.now()));
-        return new ResponseEntity<>(animeService.listAllPageable(pageable), HttpStatus.OK);
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = PageableResponse.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the ETag sent in If-None-Match")
+    })
+    public ResponseEntity<byte[]> listAllPageable(
+            @ParameterObject Pageable pageable,
+            @Parameter(description = "false skips the total count (select count(*)) and returns only the page")
+            @RequestParam(defaultValue = "true") boolean count,
+            @Parameter(description = "EXACT, CACHED or ESTIMATED, ignored when count=false")
+            @RequestParam(required = false) CountType countType,
+            WebRequest webRequest) {
+        String tableVersion = animeService.findTableVersion();
+        if (webRequest.checkNotModified(tableVersion)) {
+            return null;
+        }
+        String view = !count ? "slice" : countType != null ? countType.name() : "page";
+        byte[] page = animePageCache.get(tableVersion, pageable, view, () -> count
+                ? animeService.listAllPageable(pageable, countType)
+                : animeService.listAllSlice(pageable));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).cacheControl(REVALIDATE).body(page);
         /*
+        count=false: Slice<Anime> em vez de Page<Anime>, sem o select count(*) (o PageableResponse entende os dois).
+        countType: total exato, em cache ou estimado (AnimeCounter), informado no campo totalElementsType.
+
+        Página já serializada (AnimePageCache): o byte[] é copiado direto na resposta (ByteArrayHttpMessageConverter),
+        sem consultar o banco nem executar o Jackson enquanto a tabela não mudar. O JSON é o mesmo do Page<Anime>.
+
+        ETag da listagem = versão da tabela (AnimeTableVersion), lida antes da consulta: enquanto nenhum anime
+        for salvo/alterado/removido, o If-None-Match responde 304 sem consultar os animes nem serializar a página.
+        A versão vem do banco (a mesma em todas as instâncias): a sequence anime_table_version_seq, lida sem
+        percorrer a tabela anime e guardada por até o recheck-interval. Com count=false a requisição não executa nenhum
+        count nem percorre a tabela, só a busca da versão (quando expirada) e a página.
+        A página/size/sort fazem parte da URL, então a mesma ETag não se confunde entre páginas diferentes.
+        checkNotModified: compara com o If-None-Match, já adiciona o header ETag e, se igual, o status 304
+        (retornar null = resposta já tratada, sem corpo).
+
         Boas práticas: retornar conteúdo extras, tipo status da request,
         ao invés de somente o conteúdo solicitado, na resquet.
 
@@ -74,15 +171,46 @@ public class AnimeController {
          */
     }
 
+    @GetMapping(params = "after")
+    @Operation(
+            summary = "List all animes paginated by cursor",
+            description = "Keyset pagination without the total count. Send an empty 'after' for the first page "
+                    + "and the returned 'nextCursor' for the next ones. The default size is 5",
+            tags = {"anime"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    public ResponseEntity<CursorPage<Anime>> listAllByCursor(
+            @Parameter(description = "Cursor returned by the previous page, empty for the first page") @RequestParam String after,
+            @Parameter(description = "Number of animes per page") @RequestParam(defaultValue = "5") int size) {
+        return ResponseEntity.ok(animeService.listAllAfter(after, size));
+        //params = "after": só atende as requisições com o parâmetro 'after', as demais continuam no listAllPageable
+    }
     @GetMapping(path = "/{id}")
     @Operation(summary = "Find anime by ID", description = "Returns a single anime by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful Operation"),
+            @ApiResponse(responseCode = "304", description = "Anime not modified since the ETag sent in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Anime not found")
     })
-    public ResponseEntity<Anime> findById(@Parameter(description = "ID of the anime to be searched") @PathVariable Long id) {
-        return ResponseEntity.ok(animeService.findByIdOrThrowBadRequestException(id));
+    public ResponseEntity<AnimeView> findById(@Parameter(description = "ID of the anime to be searched") @PathVariable Long id,
+                                          WebRequest webRequest) {
+        AnimeView anime = animeService.findByIdOrThrowBadRequestException(id);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            if (webRequest.checkNotModified(String.valueOf(anime.version()))) {
+                return null;
+            }
+            //O header ETag já foi adicionado pelo checkNotModified
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(anime);
+        }
+        return ResponseEntity.ok().eTag(String.valueOf(anime.version())).cacheControl(REVALIDATE).body(anime);
         /*
+          ETag forte = version do anime (@Version). O anime é lido uma única vez (cache 'animes'), o 304 e o corpo
+          saem do mesmo AnimeView: o ETag enviado é sempre o da versão devolvida, mesmo com um PUT em paralelo.
+          Ex: GET /animes/1 -> ETag: "0" | GET /animes/1 + If-None-Match: "0" -> 304 Not Modified (sem corpo)
+
           - @GetMapping(path = "/{id}")
            Quando temos mais de 1 method http (GET) é necessário diferenciá-los por um
           'path' caminho que apronta pra um endpoint /animes/{id}. Nesse exemplo
@@ -99,10 +227,10 @@ public class AnimeController {
     })
     //@PreAuthorize("hasRole('ADMIN')")//verifica se o usuário atual logado possui a permissão de "ADMIN"
     //(E mais recomendado utilizar um padrão de url's é aplicar a proteção com um antMatcher)
-    public ResponseEntity<Anime> findByIdAuthenticationPrincipal(
+    public ResponseEntity<AnimeView> findByIdAuthenticationPrincipal(
             @Parameter(description = "ID of the anime to be searched") @PathVariable Long id,
             @AuthenticationPrincipal UserDetails userDetails){
-        log.info("Name user logado: {}", userDetails.getUsername());
+        log.debug("Name user logado: {}", userDetails.getUsername());
         return new ResponseEntity<>(animeService.findByIdOrThrowBadRequestException(id), HttpStatus.OK);
         //@AuthenticationPrincipal pega o user autenticado
     }
@@ -127,6 +255,62 @@ public class AnimeController {
         */
     }
 
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Save a list of animes", description = "Inserts all animes in a single transaction using JDBC batching")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Animes created successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad Request Exception, Invalid fields")
+    })
+    public ResponseEntity<AnimeBatchResponse> saveAll(@RequestBody List<AnimePostRequestBody> animePostRequestBodies) {
+        int inserted = animeService.saveAll(animePostRequestBodies.iterator());
+        return new ResponseEntity<>(AnimeBatchResponse.builder().inserted(inserted).build(), HttpStatus.CREATED);
+    }
+
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Save a NDJSON stream of animes", description = "Same as the JSON list, but reads one anime "
+            + "per line while inserting, without loading the whole body in memory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Animes created successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad Request Exception, Invalid fields or invalid JSON line")
+    })
+    public ResponseEntity<AnimeBatchResponse> saveAllNdjson(InputStream body) throws IOException {
+        try (MappingIterator<AnimePostRequestBody> lines = objectMapper
+                .readerFor(AnimePostRequestBody.class)
+                .readValues(body)) {
+            int inserted = animeService.saveAll(ndjsonIterator(lines));
+            return new ResponseEntity<>(AnimeBatchResponse.builder().inserted(inserted).build(), HttpStatus.CREATED);
+        }
+        //InputStream: o corpo da requisição é lido à medida que os animes são inseridos
+    }
+
+    //hasNextValue/nextValue em vez de hasNext/next, que embrulham o erro de JSON em uma RuntimeException genérica
+    private static Iterator<AnimePostRequestBody> ndjsonIterator(MappingIterator<AnimePostRequestBody> lines) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return lines.hasNextValue();
+                } catch (IOException e) {
+                    throw invalidNdjson(e);
+                }
+            }
+
+            @Override
+            public AnimePostRequestBody next() {
+                try {
+                    return lines.nextValue();
+                } catch (IOException e) {
+                    throw invalidNdjson(e);
+                }
+            }
+        };
+    }
+
+    private static BadRequestException invalidNdjson(IOException e) {
+        String message = e instanceof JsonProcessingException jsonException ? jsonException.getOriginalMessage() : e.getMessage();
+        return new BadRequestException("Invalid NDJSON line: " + message);
+    }
+
     @DeleteMapping(path = "/admin/{id}")
     @Operation(summary = "Delete anime by ID", description = "Deletes an anime by its ID")
     @ApiResponses(value = {
@@ -142,11 +326,42 @@ public class AnimeController {
         */
     }
 
+    @DeleteMapping(path = "/admin/batch")
+    @Operation(summary = "Delete animes by IDs or by name",
+            description = "Deletes all animes with the given IDs, or whose name matches the filter (same as the search), "
+                    + "with a single statement per chunk in one transaction. Inform either ids or name")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation"),
+            @ApiResponse(responseCode = "400", description = "Neither or both ids and name informed")
+    })
+    public ResponseEntity<AnimeBatchResponse> deleteAll(
+            @Parameter(description = "IDs of the animes to be deleted, ex: 1,2,3") @RequestParam(required = false) List<Long> ids,
+            @Parameter(description = "Beginning or part of the name of the animes to be deleted") @RequestParam(required = false) String name,
+            @Parameter(description = "PREFIX or CONTAINS") @RequestParam(defaultValue = "PREFIX") AnimeService.NameMatch match) {
+        int deleted = animeService.deleteAll(ids, name, match);
+        return ResponseEntity.ok(AnimeBatchResponse.builder().deleted(deleted).build());
+    }
+
+    @PutMapping(path = "/batch")
+    @Operation(summary = "Rename a list of animes",
+            description = "Updates the name of all animes with a single statement per chunk in one transaction. "
+                    + "Unknown IDs are ignored and not counted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation"),
+            @ApiResponse(responseCode = "400", description = "Bad Request Exception, Invalid fields or duplicated IDs")
+    })
+    public ResponseEntity<AnimeBatchResponse> replaceAll(@RequestBody List<AnimePutRequestBody> animePutRequestBodies) {
+        int updated = animeService.replaceAll(animePutRequestBodies);
+        return ResponseEntity.ok(AnimeBatchResponse.builder().updated(updated).build());
+    }
+
     @PutMapping
-    @Operation(summary = "Replace anime", description = "Replaces an existing anime")
+    @Operation(summary = "Replace anime", description = "Replaces an existing anime. Send the 'version' "
+            + "(the anime ETag) to only replace it if it was not modified in the meantime")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Successful Operation"),
-            @ApiResponse(responseCode = "400", description = "Bad Request Exception, Invalid fields")
+            @ApiResponse(responseCode = "400", description = "Bad Request Exception, Invalid fields"),
+            @ApiResponse(responseCode = "409", description = "The anime was modified since the informed version")
     })
     public ResponseEntity<Void> replace(@RequestBody AnimePutRequestBody animePutRequestBody){
         animeService.replace(animePutRequestBody);
@@ -162,13 +377,31 @@ public class AnimeController {
          */
     }
 
+    @GetMapping(path = "/search")
+    @Operation(
+            summary = "Search animes by name",
+            description = "Case-insensitive search by the beginning (PREFIX) or any part (CONTAINS) of the name, "
+                    + "paginated without the total count. The default size is 5",
+            tags = {"anime"}
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful Operation"),
+            @ApiResponse(responseCode = "400", description = "Empty search term")
+    })
+    public ResponseEntity<Slice<AnimeView>> searchByName(
+            @Parameter(description = "Beginning or part of the anime name") @RequestParam String name,
+            @Parameter(description = "PREFIX or CONTAINS") @RequestParam(defaultValue = "PREFIX") AnimeService.NameMatch match,
+            @ParameterObject Pageable pageable) {
+        return ResponseEntity.ok(animeService.searchByName(name, match, pageable));
+    }
+
     @GetMapping(path = "/find")
     @Operation(summary = "Find animes by name", description = "Returns a list of animes by their name")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful Operation"),
             @ApiResponse(responseCode = "404", description = "Animes not found")
     })
-    public ResponseEntity<List<Anime>> findByName(@Parameter(description = "Name of the animes to be searched") @RequestParam String name) {
+    public ResponseEntity<List<AnimeView>> findByName(@Parameter(description = "Name of the animes to be searched") @RequestParam String name) {
         return ResponseEntity.ok(animeService.findByName(name));
     /*
     Quando temos mais de um método HTTP utilizando/respondendo no mesmo endpoint, como a seguir:
@@ -0,0 +1,79 @@
+package br.com.uanderson.springboot.controller;
+
+import br.com.uanderson.springboot.domain.Anime;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Cache das páginas do GET /animes (Page ou Slice, count=false) já serializadas em JSON (byte[]), escritas direto na resposta
+ * sem consultar o banco de dados nem passar pelo Jackson novamente.
+ * <p>
+ * A chave inclui a geração (versão da tabela, AnimeTableVersion): qualquer escrita de anime muda a geração
+ * e as páginas antigas deixam de ser encontradas, sendo descartadas pelo limite de tamanho/TTL.
+ * Só as primeiras páginas (max-page) são guardadas, páginas profundas são raras e ocupariam o cache.
+ * <p>
+ * Métricas expostas em /actuator/prometheus: cache_gets_total{cache="animePages"}, cache_evictions_total...
+ */
+@Component
+@Log4j2
+public class AnimePageCache {
+    public static final String CACHE_NAME = "animePages";
+
+    private final Cache<String, byte[]> cache;
+    private final ObjectMapper objectMapper;
+    private final int maxPage;
+
+    public AnimePageCache(MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                          @Value("${app.cache.anime-pages.maximum-weight:16MB}") DataSize maximumWeight,
+                          @Value("${app.cache.anime-pages.ttl:10m}") Duration ttl,
+                          @Value("${app.cache.anime-pages.max-page:10}") int maxPage) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((String key, byte[] json) -> json.length)//Limite pelo total de bytes, não pela quantidade de páginas
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.objectMapper = objectMapper;
+        this.maxPage = maxPage;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Anime page cache enabled: maximumWeight={}, ttl={}, maxPage={}", maximumWeight, ttl, maxPage);
+    }
+
+    /**
+     * @param view o que a página contém além dos animes, ex: "slice" (sem total) ou o CountType do total.
+     */
+    public byte[] get(String generation, Pageable pageable, String view, Supplier<? extends Slice<Anime>> loader) {
+        if (pageable.isUnpaged() || pageable.getPageNumber() >= maxPage) {
+            return serialize(loader.get());
+        }
+        String key = generation + ":" + view + ":" + pageable.getPageNumber() + ":"
+                + pageable.getPageSize() + ":" + pageable.getSort();
+        return cache.get(key, ignored -> serialize(loader.get()));
+        /*
+        Ex de chave: "120-340-57:ESTIMATED:0:5:id: DESC" (geração:view:página:tamanho:ordenação).
+        cache.get com a função: requisições simultâneas da mesma página esperam uma única consulta.
+         */
+    }
+
+    private byte[] serialize(Slice<Anime> page) {
+        try {
+            return objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.uanderson.springboot.controller;
+
+import br.com.uanderson.springboot.responses.TokenResponse;
+import br.com.uanderson.springboot.security.TokenService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final TokenService tokenService;
+
+    @PostMapping(path = "/token")
+    @Operation(summary = "Exchange Basic credentials for a token",
+            description = "Authenticate once with HTTP Basic and use the returned token as 'Authorization: Bearer <token>' on /animes/** and /users/**. "
+                    + "The token is not revoked: it stays valid until it expires (expiresIn) even if the user is deleted "
+                    + "or has the password or roles changed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Token issued successfully."),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials.")
+    })
+    public ResponseEntity<TokenResponse> token(Authentication authentication) {
+        TokenResponse tokenResponse = TokenResponse.builder()
+                .token(tokenService.issue(authentication))
+                .tokenType(TokenService.TOKEN_TYPE)
+                .expiresIn(tokenService.getTtl().toSeconds())
+                .build();
+        return new ResponseEntity<>(tokenResponse, HttpStatus.OK);
+        //Authentication é preenchida pelo Spring Security (BasicAuthenticationFilter) antes de chegar aqui.
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.uanderson.springboot.controller;
 
 import br.com.uanderson.springboot.domain.DevDojoUserDetails;
+import br.com.uanderson.springboot.projection.DevDojoUserView;
 import br.com.uanderson.springboot.requests.DevDojoUserPostRequest;
 import br.com.uanderson.springboot.requests.DevDojoUserPutRequest;
 import br.com.uanderson.springboot.service.DevDojoUserService;
@@ -39,7 +40,7 @@ public class DevDojoUserController {
             @ApiResponse(responseCode = "200", description = "List of users returned successfully."),
             @ApiResponse(responseCode = "500", description = "Internal server error.")
     })
-    public ResponseEntity<List<DevDojoUserDetails>> getAllUsers() {
+    public ResponseEntity<List<DevDojoUserView>> getAllUsers() {
         return new ResponseEntity<>(devDojoUserService.listAllNoPageable(), HttpStatus.OK);
     }
 
@@ -50,8 +51,8 @@ public class DevDojoUserController {
             @ApiResponse(responseCode = "400", description = "User not found."),
             @ApiResponse(responseCode = "500", description = "Internal server error.")
     })
-    public ResponseEntity<DevDojoUserDetails> getUserById(@PathVariable Long id) {
-        return new ResponseEntity<>(devDojoUserService.findByIdOrThrowBadRequestException(id), HttpStatus.OK);
+    public ResponseEntity<DevDojoUserView> getUserById(@PathVariable Long id) {
+        return new ResponseEntity<>(devDojoUserService.findViewByIdOrThrowBadRequestException(id), HttpStatus.OK);
     }
 
     @PutMapping()
@@ -1,27 +1,43 @@
 package br.com.uanderson.springboot.domain;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
 @Entity
+@Table(indexes = @Index(name = "idx_anime_name", columnList = "name"))
+//Índice para o findByName (igualdade), a busca por prefixo/trecho usa o índice trigram (no prd, migrações V6 e V7)
 public class Anime {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "anime_seq")
+    @SequenceGenerator(name = "anime_seq", sequenceName = "anime_seq", allocationSize = 50)
+    //Sequence (pooled) no lugar do IDENTITY: reserva 50 ids por consulta e permite o batch de inserts do Hibernate
     private Long id;
 
     @NotEmpty(message = "The anime name cannot be empty") //Pega os null também
     private String name;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    //Incrementada a cada alteração: ETag do anime e lock otimista do replace (AnimePutRequestBody.version)
+    private Long version;
 }
 
 /*
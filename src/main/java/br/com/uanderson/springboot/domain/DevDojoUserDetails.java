@@ -1,30 +1,33 @@
 package br.com.uanderson.springboot.domain;
 
+import br.com.uanderson.springboot.security.GrantedAuthorityPool;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotEmpty;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
-@Builder
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_dev_dojo_user_details_username", columnNames = "username"))
+//username único: índice usado pelo findByUsername (executado a cada autenticação), no prd criado pela migração V5
 public class DevDojoUserDetails implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,22 +39,57 @@ public class DevDojoUserDetails implements UserDetails {
     @NotEmpty(message = "The user's password cannot be empty")
     private String password;
     @NotEmpty(message = "The user's authorities cannot be empty")
+    @Setter(AccessLevel.NONE)//setter próprio, reconstrói a lista de authorities
     private String authorities;
 
+    /*
+     Lista de authorities já convertida, montada uma única vez (ao carregar do banco, no construtor
+     ou no setAuthorities) em vez de a cada getAuthorities(), que é chamado várias vezes por requisição.
+     transient: não é coluna (JPA), não entra no equals/hashCode (Lombok) nem na serialização Java,
+     após desserializar a lista é montada novamente no primeiro getAuthorities().
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private transient List<GrantedAuthority> grantedAuthorities;
+
+    @Builder
+    public DevDojoUserDetails(Long id, String name, String username, String password, String authorities) {
+        this.id = id;
+        this.name = name;
+        this.username = username;
+        this.password = password;
+        setAuthorities(authorities);
+    }
+
+    public void setAuthorities(String authorities) {
+        this.authorities = authorities;
+        this.grantedAuthorities = GrantedAuthorityPool.parse(authorities);
+    }
+
+    @PostLoad
+    void parseAuthorities() {
+        //O Hibernate preenche os campos direto (field access), sem passar pelo setAuthorities
+        this.grantedAuthorities = GrantedAuthorityPool.parse(authorities);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        List<SimpleGrantedAuthority> authorityList = new ArrayList<>();
-        for (String role : authorities.split(",")) {
-            SimpleGrantedAuthority simpleGrantedAuthority = new SimpleGrantedAuthority(role);
-            authorityList.add(simpleGrantedAuthority);
+        List<GrantedAuthority> authorityList = grantedAuthorities;
+        if (authorityList == null) {
+            authorityList = GrantedAuthorityPool.parse(authorities);
+            grantedAuthorities = authorityList;
         }
         return authorityList;
-        /* OUTRA FORMA DE FAZER - DEVDOJO
-        return Arrays.stream(authorities.split(","))
-                        .map(SimpleGrantedAuthority::new)
-                        .collect(Collectors.toList());
-        */
-
+        /*
+         Lista imutável e compartilhada (GrantedAuthorityPool): chamadas repetidas não alocam nada.
+         ANTES - uma nova lista a cada chamada:
+            List<SimpleGrantedAuthority> authorityList = new ArrayList<>();
+            for (String role : authorities.split(",")) {
+                authorityList.add(new SimpleGrantedAuthority(role));
+            }
+            return authorityList;
+         */
     }
 
     @Override
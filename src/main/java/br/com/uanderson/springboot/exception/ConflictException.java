@@ -0,0 +1,11 @@
+package br.com.uanderson.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {//Ex: o anime foi alterado por outra requisição (lock otimista)
+    public ConflictException(String message) {
+        super(message);
+    }
+}
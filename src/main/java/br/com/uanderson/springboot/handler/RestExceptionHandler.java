@@ -1,10 +1,15 @@
 package br.com.uanderson.springboot.handler;
 
+import br.com.uanderson.springboot.config.MetricsConfig;
 import br.com.uanderson.springboot.exception.BadRequestException;
 import br.com.uanderson.springboot.exception.BadRequestExceptionDetails;
+import br.com.uanderson.springboot.exception.ConflictException;
 import br.com.uanderson.springboot.exception.ExceptionDetails;
 import br.com.uanderson.springboot.exception.ValidationExceptionDetails;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -16,8 +21,10 @@ import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import org.springframework.web.util.WebUtils;
 
@@ -27,11 +34,15 @@ import java.util.stream.Collectors;
 
 @ControllerAdvice // Mais generico padrão MVC - retornar as views html ou JSON ou XML
 //@RestControllerAdvice// mais específico e adaptado para controladores RESTful retorna dados JSON ou XML
+@RequiredArgsConstructor
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
+    private final MeterRegistry meterRegistry;
+
     //   handler Global -  Manipulação/Tratamento global
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<BadRequestExceptionDetails> handleBadRequestException(
-            BadRequestException badRequestException) {
+            BadRequestException badRequestException, WebRequest request) {
+        countBadRequest(badRequestException, request);
         return new ResponseEntity<>(
                 // Criação de uma resposta personalizada para exceções do tipo BadRequestException
                 BadRequestExceptionDetails.builder()
@@ -44,9 +55,23 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         );
     }//method
 
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ExceptionDetails> handleConflictException(ConflictException conflictException) {
+        return new ResponseEntity<>(
+                ExceptionDetails.builder()
+                        .title("Conflict Exception, Reload the resource and try again")
+                        .status(HttpStatus.CONFLICT.value())
+                        .details(conflictException.getMessage())
+                        .developerMessage(conflictException.getClass().getName())
+                        .timestamp(LocalDateTime.now())
+                        .build(), HttpStatus.CONFLICT
+        );
+    }//method
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException exception, HttpHeaders headers, HttpStatusCode status, WebRequest request) {
+        countBadRequest(exception, request);
 
         List<FieldError> fieldErrors = exception.getBindingResult().getFieldErrors();
 
@@ -102,6 +127,20 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
          */
     }
 
+    private void countBadRequest(Exception exception, WebRequest request) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        Counter.builder(MetricsConfig.BAD_REQUESTS_COUNTER)
+                .description("Requests answered with 400 Bad Request by this handler")
+                .tag("exception", exception.getClass().getSimpleName())
+                .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .increment();
+        /*
+        Tag uri com o padrão da rota (ex: /animes/{id}), como no http.server.requests: o id ou a mensagem
+        da exception (ex: "Anime not found with id 5") criariam uma série nova no Prometheus por valor.
+         */
+    }
+
 
 }//class
 /*
@@ -4,13 +4,19 @@ import br.com.uanderson.springboot.domain.Anime;
 import br.com.uanderson.springboot.requests.AnimePostRequestBody;
 import br.com.uanderson.springboot.requests.AnimePutRequestBody;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 @Mapper(componentModel = "spring")//indicar ao MapStruct que ela é uma class de mapeamento
 public abstract class AnimeMapper {
     //Mapeamento dos DTO's para a entidade'
     public static final AnimeMapper INSTANCE = Mappers.getMapper(AnimeMapper.class);
+    //id gerado pela anime_seq e version controlada pelo @Version: nenhum dos dois vem do cliente
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     public abstract Anime toAnime(AnimePostRequestBody animePostRequestBody);
+    //O version do PUT é a versão esperada pelo cliente (condição do replace), não o valor a gravar
+    @Mapping(target = "version", ignore = true)
     public abstract Anime toAnime(AnimePutRequestBody animePutRequestBody);
 
 }
@@ -0,0 +1,19 @@
+package br.com.uanderson.springboot.projection;
+
+import br.com.uanderson.springboot.domain.Anime;
+
+/**
+ * Anime somente para leitura, montado direto pela consulta (select new ...AnimeView(a.id, a.name, a.version)),
+ * sem passar pelo contexto de persistência: não há snapshot para o dirty checking nem entidade gerenciada.
+ * <p>
+ * Mesmo JSON do Anime (id, name, version).
+ *
+ * @param id      id do anime.
+ * @param name    nome do anime.
+ * @param version versão do anime, a mesma ETag do GET /animes/{id}.
+ */
+public record AnimeView(Long id, String name, Long version) {
+    public static AnimeView from(Anime anime) {
+        return new AnimeView(anime.getId(), anime.getName(), anime.getVersion());
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.uanderson.springboot.projection;
+
+import br.com.uanderson.springboot.security.GrantedAuthorityPool;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Usuário retornado pelo GET /users e GET /users/{id}, sem a senha (hash BCrypt) e sem os campos
+ * do UserDetails (accountNonExpired, enabled...). Montado direto pela consulta, sem carregar a entidade.
+ * <p>
+ * authorities no mesmo formato JSON do DevDojoUserDetails: [{"authority": "ROLE_ADMIN"}, {"authority": "ROLE_USER"}].
+ *
+ * @param id          id do usuário.
+ * @param name        nome do usuário.
+ * @param username    username usado na autenticação.
+ * @param authorities authorities do usuário, lista imutável e compartilhada (GrantedAuthorityPool).
+ */
+public record DevDojoUserView(Long id, String name, String username, List<GrantedAuthority> authorities) {
+    //Usado pela consulta (select new ...DevDojoUserView(u.id, u.name, u.username, u.authorities)), coluna separada por vírgula
+    public DevDojoUserView(Long id, String name, String username, String authorities) {
+        this(id, name, username, GrantedAuthorityPool.parse(authorities));
+    }
+}
@@ -1,15 +1,98 @@
 package br.com.uanderson.springboot.repository;
 
 import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.projection.AnimeView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface AnimeRepository extends JpaRepository<Anime, Long> {
+public interface AnimeRepository extends JpaRepository<Anime, Long>, AnimeRepositoryCustom {
+    int STREAM_FETCH_SIZE = 500;
+
     List<Anime> findByName(String name);
 
+    /*
+     Projeções (AnimeView): o Hibernate monta o record direto do ResultSet, sem entidade gerenciada,
+     sem snapshot para o dirty checking e sem ocupar o contexto de persistência. Usadas nas leituras
+     que não passam por cache (listagem completa e buscas por nome).
+     */
+    @Query("select new br.com.uanderson.springboot.projection.AnimeView(a.id, a.name, a.version) from Anime a")
+    List<AnimeView> findAllViews();
+
+    @Query("select new br.com.uanderson.springboot.projection.AnimeView(a.id, a.name, a.version) from Anime a where a.name = :name")
+    List<AnimeView> findViewsByName(@Param("name") String name);
+
+    /*
+     Busca sem diferenciar maiúsculas/minúsculas, o pattern já vem em minúsculo e escapado do AnimeService
+     ("naru%" prefixo, "%ruto%" trecho). No PostgreSQL usa o índice GIN trigram sobre lower(name).
+     Slice: sem o select count(*), que percorreria todos os animes do LIKE (em um '%trecho%' curto, quase a tabela toda).
+     */
+    @Query("select new br.com.uanderson.springboot.projection.AnimeView(a.id, a.name, a.version) from Anime a "
+            + "where lower(a.name) like :pattern escape '\\'")
+    Slice<AnimeView> searchByNameLike(@Param("pattern") String pattern, Pageable pageable);
+
+    //Escrita em uma única instrução, sem carregar o anime: retornam a quantidade de linhas afetadas (0 = não existe)
+    //clearAutomatically: o UPDATE/DELETE não passa pelo contexto de persistência, limpa os animes já carregados (desatualizados)
+    //Os UPDATEs em JPQL não incrementam o @Version sozinhos, por isso o a.version + 1 (ETag e lock otimista)
+    @Modifying(clearAutomatically = true)
+    @Query("update Anime a set a.name = :name, a.version = a.version + 1 where a.id = :id")
+    int updateNameById(@Param("id") Long id, @Param("name") String name);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Anime a set a.name = :name, a.version = a.version + 1 where a.id = :id and a.version = :version")
+    int updateNameByIdAndVersion(@Param("id") Long id, @Param("name") String name, @Param("version") Long version);
+
+    //Anime do GET /animes/{id} e do cache 'animes': record imutável, compartilhado entre as requisições sem cópia
+    @Query("select new br.com.uanderson.springboot.projection.AnimeView(a.id, a.name, a.version) from Anime a where a.id = :id")
+    Optional<AnimeView> findViewById(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Anime a where a.id = :id")
+    int removeById(@Param("id") Long id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Anime a where lower(a.name) like :pattern escape '\\'")
+    int removeByNameLike(@Param("pattern") String pattern);
+
+    //Slice: busca size + 1 animes para saber se existe próxima página, sem o select count(*) do Page
+    Slice<Anime> findAllBy(Pageable pageable);
+
+    //Estimativa do PostgreSQL (atualizada pelo ANALYZE/autovacuum), -1 enquanto a tabela não foi analisada
+    //NOT_SUPPORTED: fora da transação de quem chama, assim o erro em bancos sem o pg_class (H2) não a marca como rollback-only
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Query(value = "select cast(reltuples as bigint) from pg_class where oid = to_regclass('anime')", nativeQuery = true)
+    Optional<Long> estimateCount();
+
+    //Paginação por cursor (keyset): WHERE id < ? ORDER BY id DESC LIMIT ?, usa o índice da chave primária e sem OFFSET
+    List<Anime> findByIdLessThanOrderByIdDesc(Long id, Limit limit);
+
+    List<Anime> findAllByOrderByIdDesc(Limit limit);
+
+    /*
+     Percorre a tabela sem carregar tudo na memória: o driver busca STREAM_FETCH_SIZE linhas por vez
+     (no PostgreSQL só funciona dentro de uma transação). Projeção (AnimeView), como o findAllViews: nenhuma
+     entidade entra no contexto de persistência, então não há o que desanexar a cada linha.
+     O Stream deve ser fechado (try-with-resources) e consumido dentro de uma transação.
+     */
+    @Query("select new br.com.uanderson.springboot.projection.AnimeView(a.id, a.name, a.version) from Anime a")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    Stream<AnimeView> streamAllViews();
+
 }
 /*   List<Anime> listAll(); Não é mais preciso pois por default já temos
         alguns method crud implementados por causa da interface JpaRepository.
@@ -0,0 +1,39 @@
+package br.com.uanderson.springboot.repository;
+
+import br.com.uanderson.springboot.domain.Anime;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Operações do AnimeRepository que o Spring Data não gera, implementadas em AnimeRepositoryCustomImpl.
+ */
+public interface AnimeRepositoryCustom {
+
+    /**
+     * Insere os animes em lotes (JDBC batch), liberando o contexto de persistência a cada lote.
+     * Deve ser chamado dentro de uma transação.
+     *
+     * @param animes animes a serem inseridos, consumidos um a um (podem vir de um stream).
+     * @return quantidade de animes inseridos.
+     */
+    int insertAll(Iterator<Anime> animes);
+
+    /**
+     * Remove os animes com um DELETE ... WHERE id IN (...) por lote, sem carregá-los.
+     * Deve ser chamado dentro de uma transação.
+     *
+     * @return quantidade de animes removidos (ids inexistentes são ignorados).
+     */
+    int removeAllById(Collection<Long> ids);
+
+    /**
+     * Renomeia os animes com um UPDATE ... SET name = CASE id WHEN ... END WHERE id IN (...) por lote,
+     * sem carregá-los. Deve ser chamado dentro de uma transação.
+     *
+     * @param namesById novo nome de cada id.
+     * @return quantidade de animes alterados (ids inexistentes são ignorados).
+     */
+    int updateNames(Map<Long, String> namesById);
+}
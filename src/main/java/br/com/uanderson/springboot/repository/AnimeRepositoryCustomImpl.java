@@ -0,0 +1,86 @@
+package br.com.uanderson.springboot.repository;
+
+import br.com.uanderson.springboot.domain.Anime;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class AnimeRepositoryCustomImpl implements AnimeRepositoryCustom {
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public AnimeRepositoryCustomImpl(EntityManager entityManager,
+                                     @Value("${app.anime.batch.chunk-size:500}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public int insertAll(Iterator<Anime> animes) {
+        int inserted = 0;
+        while (animes.hasNext()) {
+            entityManager.persist(animes.next());
+            if (++inserted % chunkSize == 0) {
+                entityManager.flush();//Envia o lote de inserts (hibernate.jdbc.batch_size por statement)
+                entityManager.clear();//Descarta os animes já inseridos, memória constante
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return inserted;
+        /*
+        Diferente do saveAll do JpaRepository, que mantém todas as entidades no contexto de persistência
+        até o fim da transação. O chunk-size deve ser múltiplo do hibernate.jdbc.batch_size.
+         */
+    }
+
+    @Override
+    public int removeAllById(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        int removed = 0;
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            removed += entityManager.createQuery("delete from Anime a where a.id in :ids")
+                    .setParameter("ids", distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size())))
+                    .executeUpdate();
+        }
+        entityManager.clear();//O DELETE não passa pelo contexto de persistência, descarta os animes já carregados
+        return removed;
+    }
+
+    @Override
+    public int updateNames(Map<Long, String> namesById) {
+        List<Map.Entry<Long, String>> entries = new ArrayList<>(namesById.entrySet());
+        int updated = 0;
+        for (int from = 0; from < entries.size(); from += chunkSize) {
+            updated += entityManager
+                    .createQuery(renameQuery(entries.subList(from, Math.min(from + chunkSize, entries.size()))))
+                    .executeUpdate();
+        }
+        entityManager.clear();
+        return updated;
+        /*
+        update anime set name = case id when ? then ? when ? then ? ... end, version = version + 1 where id in (?, ?, ...)
+        Um único statement por lote, em vez de um SELECT + UPDATE por anime. O chunk-size limita
+        a quantidade de parâmetros de cada statement (3 por anime).
+         */
+    }
+
+    private CriteriaUpdate<Anime> renameQuery(List<Map.Entry<Long, String>> entries) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Anime> update = criteriaBuilder.createCriteriaUpdate(Anime.class);
+        Root<Anime> anime = update.from(Anime.class);
+        CriteriaBuilder.SimpleCase<Long, String> newName = criteriaBuilder.selectCase(anime.<Long>get("id"));
+        entries.forEach(entry -> newName.when(entry.getKey(), entry.getValue()));
+        return update.set(anime.<String>get("name"), newName.otherwise(anime.get("name")))
+                .set(anime.<Long>get("version"), criteriaBuilder.sum(anime.<Long>get("version"), 1L))
+                .where(anime.get("id").in(entries.stream().map(Map.Entry::getKey).toList()));
+    }
+}
@@ -0,0 +1,52 @@
+package br.com.uanderson.springboot.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Versão da tabela anime (AnimeTableVersion): a sequence anime_table_version_seq, avançada após o commit de cada
+ * escrita de anime. O nextval não trava nenhuma linha nem é desfeito em rollback, então as escritas concorrentes
+ * não esperam umas pelas outras.
+ * <p>
+ * Criada pela migração V4 (prd) e pelo schema.sql (dev e testes, o ddl-auto não cria sequences sem @GeneratedValue).
+ */
+@Repository
+public class AnimeTableVersionRepository {
+    public static final String SEQUENCE = "anime_table_version_seq";
+
+    private final EntityManager entityManager;
+    private final String nextVersionQuery;
+    private final String findVersionQuery;
+
+    public AnimeTableVersionRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        this.nextVersionQuery = dialect.getSequenceSupport().getSequenceNextValString(SEQUENCE);
+        this.findVersionQuery = dialect instanceof H2Dialect
+                ? "select base_value from information_schema.sequences where sequence_name = '" + SEQUENCE.toUpperCase() + "'"
+                : "select case when is_called then last_value + 1 else last_value end from " + SEQUENCE;
+        /*
+        O valor atual de uma sequence (sem avançá-la) não tem SQL padrão: no PostgreSQL é lido da própria sequence
+        e no H2 (testes) do information_schema. Nos dois o resultado é o próximo valor do nextval, que muda a cada
+        escrita, inclusive na primeira (no PostgreSQL o last_value só muda do 1 após o segundo nextval).
+         */
+    }
+
+    //REQUIRES_NEW: chamado fora da transação da escrita (applicationTaskExecutor), sempre no primário
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long nextVersion() {
+        return ((Number) entityManager.createNativeQuery(nextVersionQuery).getSingleResult()).longValue();
+    }
+
+    //NOT_SUPPORTED: fora de transação a consulta vai sempre para o primário
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long findVersion() {
+        return ((Number) entityManager.createNativeQuery(findVersionQuery).getSingleResult()).longValue();
+    }
+}
@@ -1,10 +1,25 @@
 package br.com.uanderson.springboot.repository;
 
 import br.com.uanderson.springboot.domain.DevDojoUserDetails;
+import br.com.uanderson.springboot.projection.DevDojoUserView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface DevDojoUserRepository extends JpaRepository<DevDojoUserDetails, Long> {
     DevDojoUserDetails findByUsername(String username);
+
+    //Projeções sem a senha, para as leituras do GET /users (não carregam a entidade)
+    @Query("select new br.com.uanderson.springboot.projection.DevDojoUserView(u.id, u.name, u.username, u.authorities) "
+            + "from DevDojoUserDetails u")
+    List<DevDojoUserView> findAllViews();
+
+    @Query("select new br.com.uanderson.springboot.projection.DevDojoUserView(u.id, u.name, u.username, u.authorities) "
+            + "from DevDojoUserDetails u where u.id = :id")
+    Optional<DevDojoUserView> findViewById(@Param("id") Long id);
 }
@@ -8,4 +8,6 @@ import lombok.Data;
 public class AnimePutRequestBody { //Segue o mesmo padrão/conceito dos DTO's
     private Long id;
     private String name;
+    //Opcional: quando informada, o replace só altera o anime se ele ainda estiver nessa versão (409 Conflict)
+    private Long version;
 }
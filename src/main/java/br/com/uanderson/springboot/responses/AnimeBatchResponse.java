@@ -0,0 +1,22 @@
+package br.com.uanderson.springboot.responses;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)//Cada operação em lote informa apenas o seu contador
+public class AnimeBatchResponse { //Segue o mesmo padrão/conceito dos DTO's
+    @Schema(description = "Number of animes inserted", example = "10000")
+    private Integer inserted;
+    @Schema(description = "Number of animes updated", example = "10000")
+    private Integer updated;
+    @Schema(description = "Number of animes deleted", example = "10000")
+    private Integer deleted;
+}
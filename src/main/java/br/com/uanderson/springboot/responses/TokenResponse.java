@@ -0,0 +1,22 @@
+package br.com.uanderson.springboot.responses;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenResponse { //Segue o mesmo padrão/conceito dos DTO's
+    @Schema(description = "Signed token, send it in the header 'Authorization: Bearer <token>'")
+    private String token;
+
+    @Schema(description = "Token type", example = "Bearer")
+    private String tokenType;
+
+    @Schema(description = "Seconds until the token expires", example = "900")
+    private long expiresIn;
+}
@@ -0,0 +1,43 @@
+package br.com.uanderson.springboot.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * AuthenticationManager que consulta o {@link CredentialCache} antes de delegar para os
+ * DaoAuthenticationProvider's, evitando o BCrypt (caro por definição) a cada requisição
+ * HTTP Basic de um mesmo usuário.
+ */
+@RequiredArgsConstructor
+public class CachingAuthenticationManager implements AuthenticationManager {
+    private final AuthenticationManager delegate;
+    private final CredentialCache credentialCache;
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication instanceof UsernamePasswordAuthenticationToken) || authentication.getCredentials() == null) {
+            return delegate.authenticate(authentication);
+        }
+        String username = authentication.getName();
+        String password = authentication.getCredentials().toString();
+
+        long generation = credentialCache.generation(username);//ANTES do delegate carregar o usuário
+        Authentication cached = credentialCache.get(username, password);
+        if (cached == null) {
+            cached = credentialCache.put(username, password, generation, delegate.authenticate(authentication));
+        }
+        //Novo token a cada requisição, os details (ip, sessão) pertencem a requisição atual
+        UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken
+                .authenticated(cached.getPrincipal(), null, cached.getAuthorities());
+        result.setDetails(authentication.getDetails());
+        return result;
+        /*
+        Falhas de autenticação lançam exception no delegate e nunca são guardadas no cache.
+        O token devolvido nunca carrega a senha (credentials = null), nem no cache nem na requisição.
+        Se o usuário for alterado ou removido durante o BCrypt, a geração muda e o resultado não é guardado.
+         */
+    }
+}
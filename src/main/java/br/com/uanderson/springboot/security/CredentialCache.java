@@ -0,0 +1,125 @@
+package br.com.uanderson.springboot.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache das credenciais já verificadas pelo BCrypt.
+ * <p>
+ * A chave é um HMAC-SHA256 de {@code username + password} usando um salt aleatório
+ * gerado a cada inicialização da aplicação, ou seja, a senha em texto puro nunca fica
+ * guardada no cache e a chave não pode ser reaproveitada entre instâncias/restarts.
+ * O valor guardado também não tem a senha: {@link #put} copia apenas o principal e as authorities
+ * (o ProviderManager usa eraseCredentialsAfterAuthentication(false), então o Authentication devolvido
+ * pelo delegate ainda carrega a senha em texto puro nas credentials).
+ * <p>
+ * Invalidação por usuário: cada username tem uma geração, incrementada pelo {@link #evict}. A entrada guarda a
+ * geração lida ANTES do BCrypt e só vale enquanto ela for a atual, então uma autenticação que carregou o usuário
+ * antes de uma alteração e terminou depois do evict não volta a aceitar a senha antiga. O evict não percorre o
+ * cache: as entradas de gerações anteriores são ignoradas e saem pelo TTL ou pelo limite de tamanho.
+ * A mesma geração protege o cache userDetails (DevDojoUserDetailsService).
+ * <p>
+ * Métricas expostas em /actuator/prometheus: cache_gets_total{cache="credentials"}, cache_evictions_total...
+ */
+@Component
+@Log4j2
+public class CredentialCache {
+    public static final String CACHE_NAME = "credentials";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, CachedCredential> cache;
+    private final SecretKeySpec salt;
+    private final Map<String, Long> generations = new ConcurrentHashMap<>();//Só usuários alterados desde a inicialização
+
+    public CredentialCache(MeterRegistry meterRegistry,
+                           @Value("${app.security.credential-cache.maximum-size:10000}") long maximumSize,
+                           @Value("${app.security.credential-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        byte[] randomSalt = new byte[32];
+        new SecureRandom().nextBytes(randomSalt);
+        this.salt = new SecretKeySpec(randomSalt, HMAC_ALGORITHM);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Credential cache enabled: maximumSize={}, ttl={}", maximumSize, ttl);
+    }
+
+    public Authentication get(String username, String password) {
+        CachedCredential cached = cache.getIfPresent(key(username, password));
+        return cached != null && cached.generation() == generation(username) ? cached.authentication() : null;
+    }
+
+    /**
+     * Guarda uma cópia sem credentials do authentication informado e devolve essa cópia.
+     *
+     * @param generation {@link #generation} do usuário lida antes de autenticá-lo: se o usuário foi invalidado
+     *                   desde então, a cópia é devolvida sem ser guardada.
+     */
+    public Authentication put(String username, String password, long generation, Authentication authentication) {
+        Authentication withoutCredentials = UsernamePasswordAuthenticationToken
+                .authenticated(authentication.getPrincipal(), null, authentication.getAuthorities());
+        if (generation == generation(username)) {
+            cache.put(key(username, password), new CachedCredential(withoutCredentials, generation));
+        }
+        return withoutCredentials;
+        /*
+        Um evict entre a comparação e o put deixa uma entrada da geração anterior, que o get já ignora.
+         */
+    }
+
+    /**
+     * Geração de invalidação do usuário, deve ser lida antes de carregá-lo ou autenticá-lo.
+     */
+    public long generation(String username) {
+        return generations.getOrDefault(username, 0L);
+    }
+
+    /**
+     * Invalida todas as credenciais em cache do usuário informado (e o UserDetails do cache userDetails),
+     * deve ser chamado sempre que o usuário for alterado ou removido.
+     */
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        generations.merge(username, 1L, Long::sum);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    private String key(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(salt);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);//separador, evita colisão entre ("ab", "c") e ("a", "bc")
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to compute the credential cache key", e);
+        }
+    }
+
+    private record CachedCredential(Authentication authentication, long generation) {
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.uanderson.springboot.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool compartilhado (interning) das authorities da aplicação.
+ * <p>
+ * Todos os usuários com "ROLE_ADMIN,ROLE_USER" recebem a MESMA lista imutável, com as mesmas
+ * instâncias de SimpleGrantedAuthority, em vez de um novo ArrayList a cada getAuthorities().
+ */
+public final class GrantedAuthorityPool {
+    public static final GrantedAuthority ROLE_USER = new SimpleGrantedAuthority("ROLE_USER");
+    public static final GrantedAuthority ROLE_ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+
+    //Limite de segurança: as combinações de authorities são poucas, mas o valor vem do banco de dados
+    private static final int MAX_POOL_SIZE = 1_000;
+
+    private static final Map<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>(Map.of(
+            ROLE_USER.getAuthority(), ROLE_USER,
+            ROLE_ADMIN.getAuthority(), ROLE_ADMIN));
+    private static final Map<String, List<GrantedAuthority>> AUTHORITY_LISTS = new ConcurrentHashMap<>();
+
+    private GrantedAuthorityPool() {
+    }
+
+    public static GrantedAuthority of(String authority) {
+        GrantedAuthority pooled = AUTHORITIES.get(authority);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (AUTHORITIES.size() >= MAX_POOL_SIZE) {
+            return new SimpleGrantedAuthority(authority);
+        }
+        return AUTHORITIES.computeIfAbsent(authority, SimpleGrantedAuthority::new);
+    }
+
+    /**
+     * Converte authorities separadas por vírgula ("ROLE_ADMIN, ROLE_USER") em uma lista imutável
+     * e compartilhada. Espaços são ignorados, null ou vazio retorna uma lista vazia.
+     */
+    public static List<GrantedAuthority> parse(String commaSeparatedAuthorities) {
+        if (commaSeparatedAuthorities == null || commaSeparatedAuthorities.isBlank()) {
+            return List.of();
+        }
+        List<GrantedAuthority> pooled = AUTHORITY_LISTS.get(commaSeparatedAuthorities);
+        if (pooled != null) {
+            return pooled;
+        }
+        List<GrantedAuthority> parsed = split(commaSeparatedAuthorities);
+        if (AUTHORITY_LISTS.size() >= MAX_POOL_SIZE) {
+            return parsed;
+        }
+        List<GrantedAuthority> previous = AUTHORITY_LISTS.putIfAbsent(commaSeparatedAuthorities, parsed);
+        return previous != null ? previous : parsed;
+    }
+
+    private static List<GrantedAuthority> split(String commaSeparatedAuthorities) {
+        List<GrantedAuthority> authorityList = new ArrayList<>();
+        for (String role : commaSeparatedAuthorities.split(",")) {
+            String trimmedRole = role.trim();
+            if (!trimmedRole.isEmpty()) {
+                authorityList.add(of(trimmedRole));
+            }
+        }
+        return List.copyOf(authorityList);
+    }
+}
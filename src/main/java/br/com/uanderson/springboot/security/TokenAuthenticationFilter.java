@@ -0,0 +1,56 @@
+package br.com.uanderson.springboot.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Aceita o header {@code Authorization: Bearer <token>} emitido pelo endpoint /auth/token.
+ * <p>
+ * Token válido: a requisição é autenticada sem consultar o banco de dados.
+ * Token inválido/expirado: nada é feito, a requisição segue sem autenticação e o
+ * Spring Security responde 401 normalmente.
+ * <p>
+ * Não é um @Component de propósito, caso contrário o spring boot registraria o filtro
+ * também fora da cadeia do Spring Security.
+ */
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+    private static final String BEARER_PREFIX = TokenService.TOKEN_TYPE + " ";
+
+    private final TokenService tokenService;
+    private final RequestMatcher protectedRequests;
+    private final WebAuthenticationDetailsSource authenticationDetailsSource = new WebAuthenticationDetailsSource();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !protectedRequests.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            UsernamePasswordAuthenticationToken authentication = tokenService.verify(header.substring(BEARER_PREFIX.length()).trim());
+            if (authentication != null) {
+                authentication.setDetails(authenticationDetailsSource.buildDetails(request));
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(authentication);
+                SecurityContextHolder.setContext(context);
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,129 @@
+package br.com.uanderson.springboot.security;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Emite e valida tokens assinados com HMAC-SHA256, autocontidos e sem estado no servidor.
+ * <p>
+ * Formato: {@code base64url(expiresAt|authorities|username)}.{@code base64url(hmac)}
+ * <p>
+ * A validação é feita localmente (recalcula o HMAC e confere a expiração), sem consultar
+ * o banco de dados e sem BCrypt. Como o token carrega as authorities, alterações no usuário
+ * só passam a valer quando o token expira (mantenha o TTL curto): um usuário removido, com a senha
+ * ou as roles alteradas continua autenticado pelos tokens já emitidos até o fim do TTL.
+ * <p>
+ * O secret precisa de pelo menos 32 bytes (tamanho da saída do HMAC-SHA256), um secret menor
+ * impede a inicialização da aplicação.
+ */
+@Component
+@Log4j2
+public class TokenService {
+    public static final String TOKEN_TYPE = "Bearer";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String SEPARATOR = "|";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec secretKey;
+    private final Duration ttl;
+    private final Clock clock;
+
+    @Autowired
+    public TokenService(@Value("${app.security.token.secret:}") String secret,
+                        @Value("${app.security.token.ttl:15m}") Duration ttl) {
+        this(secret, ttl, Clock.systemUTC());
+    }
+
+    TokenService(String secret, Duration ttl, Clock clock) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            key = new byte[MIN_SECRET_BYTES];
+            new SecureRandom().nextBytes(key);
+            log.warn("app.security.token.secret is not set, using a random key: tokens will not survive a restart nor be accepted by other instances");
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+            if (key.length < MIN_SECRET_BYTES) {
+                throw new IllegalArgumentException("app.security.token.secret must have at least " + MIN_SECRET_BYTES
+                        + " bytes: " + key.length);
+            }
+        }
+        this.secretKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public String issue(Authentication authentication) {
+        long expiresAt = clock.instant().plus(ttl).getEpochSecond();
+        String authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        byte[] payload = (expiresAt + SEPARATOR + authorities + SEPARATOR + authentication.getName())
+                .getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * @return a Authentication do token ou null quando o token é inválido, adulterado ou expirado.
+     */
+    public UsernamePasswordAuthenticationToken verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(sign(payload), signature)) {//comparação em tempo constante
+            return null;
+        }
+
+        String[] fields = new String(payload, StandardCharsets.UTF_8).split("\\|", 3);
+        if (fields.length != 3 || Long.parseLong(fields[0]) < clock.instant().getEpochSecond()) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = GrantedAuthorityPool.parse(fields[1]);
+        //Principal como UserDetails para continuar funcionando com o @AuthenticationPrincipal dos controllers
+        UserDetails principal = new User(fields[2], "", authorities);
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, authorities);
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign the token", e);
+        }
+    }
+}
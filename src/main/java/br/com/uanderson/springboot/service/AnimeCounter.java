@@ -0,0 +1,128 @@
+package br.com.uanderson.springboot.service;
+
+import br.com.uanderson.springboot.repository.AnimeRepository;
+import br.com.uanderson.springboot.wrapper.CountType;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Total de animes usado no totalElements das páginas do GET /animes, em 3 estratégias (CountType):
+ * <ul>
+ *     <li>EXACT: select count(*), percorre a tabela (ou o índice) a cada chamada;</li>
+ *     <li>CACHED: o último count(*), descartado quando algum anime é escrito (AnimeTableVersion) ou após o TTL;</li>
+ *     <li>ESTIMATED: pg_class.reltuples, atualizado pelo ANALYZE/autovacuum do PostgreSQL, sem ler a tabela.</li>
+ * </ul>
+ * Quando a estimativa não está disponível (H2, tabela nunca analisada), o count é feito com o EXACT.
+ */
+@Component
+@Log4j2
+public class AnimeCounter {
+    private final AnimeRepository animeRepository;
+    private final AnimeTableVersion animeTableVersion;
+    private final CountType defaultType;
+    private final Duration cachedTtl;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile CachedCount cachedCount;
+    private volatile boolean estimateUnsupported;
+
+    @Autowired
+    public AnimeCounter(AnimeRepository animeRepository, AnimeTableVersion animeTableVersion,
+                        @Value("${app.anime.count.type:EXACT}") CountType defaultType,
+                        @Value("${app.anime.count.cached-ttl:30s}") Duration cachedTtl) {
+        this(animeRepository, animeTableVersion, defaultType, cachedTtl, Clock.systemUTC());
+    }
+
+    AnimeCounter(AnimeRepository animeRepository, AnimeTableVersion animeTableVersion,
+                 CountType defaultType, Duration cachedTtl, Clock clock) {
+        this.animeRepository = animeRepository;
+        this.animeTableVersion = animeTableVersion;
+        this.defaultType = defaultType;
+        this.cachedTtl = cachedTtl;
+        this.clock = clock;
+    }
+
+    public CountType getDefaultType() {
+        return defaultType;
+    }
+
+    public Count count(CountType type) {
+        return switch (type) {
+            case EXACT -> exact();
+            case CACHED -> cached();
+            case ESTIMATED -> estimated();
+        };
+    }
+
+    private Count exact() {
+        return new Count(animeRepository.count(), CountType.EXACT);
+    }
+
+    private Count cached() {
+        String generation = animeTableVersion.current();//Lida ANTES do count, como nas ETags das listagens
+        CachedCount current = cachedCount;
+        if (current != null && current.isValid(generation, clock.instant())) {
+            return new Count(current.total(), CountType.CACHED);
+        }
+        lock.lock();
+        try {
+            current = cachedCount;
+            if (current == null || !current.isValid(generation, clock.instant())) {
+                current = new CachedCount(generation, animeRepository.count(), clock.instant().plus(cachedTtl));
+                cachedCount = current;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new Count(current.total(), CountType.CACHED);
+        /*
+        A geração (sequence anime_table_version_seq, sem ler a tabela anime) muda após o commit de qualquer
+        escrita do AnimeService nesta instância, e em até o recheck-interval do AnimeTableVersion com escritas de
+        outras instâncias, então o total volta a ser exato na próxima chamada. Após uma escrita o CACHED faz um
+        único count(*) (o mesmo custo do EXACT), e nas chamadas seguintes nenhum.
+        O TTL é só um limite extra para o total em cache.
+        Lock: quando o total expira, só uma requisição executa o count(*), as demais esperam por ele.
+        ReentrantLock em vez de synchronized: uma virtual thread bloqueada no synchronized (aqui, esperando o banco)
+        prende a thread carregadora (pinning), com o ReentrantLock ela é desmontada e libera a carregadora.
+         */
+    }
+
+    private Count estimated() {
+        if (!estimateUnsupported) {
+            try {
+                Long estimate = animeRepository.estimateCount().orElse(-1L);
+                if (estimate >= 0) {
+                    return new Count(estimate, CountType.ESTIMATED);
+                }
+                //-1: a tabela ainda não foi analisada (ANALYZE/autovacuum), não há estimativa
+            } catch (DataAccessException e) {
+                estimateUnsupported = true;
+                log.warn("Estimated anime count is not supported by the database, falling back to the exact count: {}",
+                        e.getMessage());
+            }
+        }
+        return exact();
+    }
+
+    /**
+     * @param total total de animes.
+     * @param type  estratégia realmente usada (ESTIMATED cai para EXACT quando não há estimativa).
+     */
+    public record Count(long total, CountType type) {
+    }
+
+    private record CachedCount(String generation, long total, Instant expiresAt) {
+        boolean isValid(String currentGeneration, Instant now) {
+            return generation.equals(currentGeneration) && now.isBefore(expiresAt);
+        }
+    }
+}
@@ -1,30 +1,79 @@
 package br.com.uanderson.springboot.service;
 
+import br.com.uanderson.springboot.config.CacheConfig;
+import br.com.uanderson.springboot.config.MetricsConfig;
 import br.com.uanderson.springboot.domain.Anime;
 import br.com.uanderson.springboot.exception.BadRequestException;
+import br.com.uanderson.springboot.exception.ConflictException;
 import br.com.uanderson.springboot.mapper.AnimeMapper;
+import br.com.uanderson.springboot.projection.AnimeView;
 import br.com.uanderson.springboot.repository.AnimeRepository;
 import br.com.uanderson.springboot.requests.AnimePostRequestBody;
 import br.com.uanderson.springboot.requests.AnimePutRequestBody;
-import jakarta.transaction.Transactional;
+import br.com.uanderson.springboot.wrapper.CountType;
+import br.com.uanderson.springboot.wrapper.CountedPage;
+import br.com.uanderson.springboot.wrapper.CursorPage;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)//Um timer por método (tags class e method), histogramas e SLOs no application.yml
 public class AnimeService {
+    //Mesmo limite de tamanho de página do PageableHandlerMethodArgumentResolver
+    static final int MAX_CURSOR_PAGE_SIZE = 2000;
+
     //@Service representa uma Class que é reponsável pela implementação da REGRA DE NEGÓCIO da aplicação.
 
     private final AnimeRepository animeRepository;
+    private final CacheManager cacheManager;
+    private final AnimeTableVersion animeTableVersion;
+    private final AnimeCounter animeCounter;
 
-    public List<Anime> listAllNoPageable() {
-        return animeRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<AnimeView> listAllNoPageable() {
+        return animeRepository.findAllViews();
+        /*
+        Projeção (AnimeView) em vez das entidades: nada entra no contexto de persistência, então não há
+        snapshot de cada anime para o dirty checking nem flush no fim. readOnly: o Hibernate não faz flush
+        (FlushMode.MANUAL) e a conexão JDBC é marcada como somente leitura.
+         */
     }
 
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<AnimeView> consumer) {
+        try (Stream<AnimeView> animes = animeRepository.streamAllViews()) {
+            animes.forEach(consumer);
+        }
+        /*
+        Diferente do listAllNoPageable, que carrega a tabela inteira em uma List, aqui cada anime é entregue ao
+        consumer (ex: escrito na resposta HTTP) e descartado em seguida, memória constante.
+        Mesma representação (AnimeView) do listAllNoPageable: o JSON e o NDJSON do /animes/all têm os mesmos campos.
+         */
+    }
+
+    @Transactional(readOnly = true)
     public Page<Anime> listAllPageable(Pageable pageable) {
         return animeRepository.findAll(pageable);
         /*
@@ -40,13 +89,131 @@ public class AnimeService {
          */
     }
 
-    public List<Anime> findByName(String name) {
-        return animeRepository.findByName(name);
+    @Transactional(readOnly = true)
+    public CountedPage<Anime> listAllPageable(Pageable pageable, CountType countType) {
+        CountType type = countType != null ? countType : animeCounter.getDefaultType();
+        if (type == CountType.EXACT) {
+            Page<Anime> page = animeRepository.findAll(pageable);
+            return new CountedPage<>(page.getContent(), page.getPageable(), page.getTotalElements(), CountType.EXACT);
+        }
+        Slice<Anime> slice = animeRepository.findAllBy(pageable);
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            return new CountedPage<>(slice.getContent(), slice.getPageable(), seen, CountType.EXACT);
+        }
+        AnimeCounter.Count count = animeCounter.count(type);
+        long total = Math.max(count.total(), seen + (slice.hasNext() ? 1 : 0));
+        return new CountedPage<>(slice.getContent(), slice.getPageable(), total, count.type());
+        /*
+        Mesma página do listAllPageable, com o total obtido pela estratégia escolhida (CountType, AnimeCounter):
+        - EXACT: o Page do repository, com o select count(*) (que o Spring Data já pula quando a primeira página não enche);
+        - CACHED/ESTIMATED: o Slice (size + 1 animes) e o total do AnimeCounter, sem o count(*) a cada requisição.
+        A última página já informa o total exato (animes anteriores + os desta página), sem consultar o AnimeCounter.
+        Um total desatualizado nunca é menor do que os animes já vistos, assim o hasNext/last continuam corretos.
+        ex:
+            http://localhost:8080/animes?countType=ESTIMATED&size=5&page=1
+         */
     }
 
-    public Anime findByIdOrThrowBadRequestException(Long id) {
-        return animeRepository.findById(id)
-                .orElseThrow(() -> new BadRequestException("Anime not found with id " + id));
+    @Transactional(readOnly = true)
+    public Slice<Anime> listAllSlice(Pageable pageable) {
+        return animeRepository.findAllBy(pageable);
+        /*
+        Mesma página do listAllPageable, porém sem o select count(*): o Page precisa do total
+        (totalElements/totalPages) e o count percorre a tabela inteira a cada requisição, enquanto
+        a maioria dos clientes só precisa saber se existe próxima página (hasNext/last).
+        ex:
+            http://localhost:8080/animes?count=false&size=5&page=1
+         */
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Anime> listAllAfter(String cursor, int size) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        Limit limit = Limit.of(pageSize + 1);//1 elemento a mais indica se existe próxima página, sem count(*)
+        List<Anime> animes = cursor == null || cursor.isBlank()
+                ? animeRepository.findAllByOrderByIdDesc(limit)
+                : animeRepository.findByIdLessThanOrderByIdDesc(decodeCursor(cursor), limit);
+
+        if (animes.size() <= pageSize) {
+            return new CursorPage<>(animes, pageSize, null);
+        }
+        List<Anime> content = List.copyOf(animes.subList(0, pageSize));
+        return new CursorPage<>(content, pageSize, encodeCursor(content.get(pageSize - 1).getId()));
+        /*
+        Paginação por cursor (keyset/seek): em vez de OFFSET (que lê e descarta todas as linhas das
+        páginas anteriores), busca a partir do último id da página anterior, usando o índice da chave
+        primária. O custo é o mesmo na página 1 ou na página 1000, e não é executado o count(*).
+        Mesma ordenação padrão do listAllPageable (id DESC).
+        ex:
+            http://localhost:8080/animes?after=&size=5 -> primeira página
+            http://localhost:8080/animes?after={nextCursor}&size=5 -> próxima página
+         */
+    }
+
+    private static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {//NumberFormatException também é uma IllegalArgumentException
+            throw new BadRequestException("Invalid cursor " + cursor);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<AnimeView> findByName(String name) {
+        return animeRepository.findViewsByName(name);
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<AnimeView> searchByName(String term, NameMatch match, Pageable pageable) {
+        if (term == null || term.isBlank()) {
+            throw new BadRequestException("The search term cannot be empty");
+        }
+        return animeRepository.searchByNameLike(namePattern(term, match), pageable);
+        /*
+        Diferente do findByName (nome exato), busca por prefixo ("naru" -> Naruto, Naruto Shippuden)
+        ou por trecho do nome ("ruto"), ignorando maiúsculas/minúsculas.
+        Slice (size + 1 animes): informa se existe próxima página, sem o total de animes encontrados.
+        ex:
+            http://localhost:8080/animes/search?name=naru&match=PREFIX&size=5&page=0
+         */
+    }
+
+    private static String namePattern(String term, NameMatch match) {
+        String escapedTerm = escapeLike(term.trim().toLowerCase(Locale.ROOT));
+        return match == NameMatch.CONTAINS ? "%" + escapedTerm + "%" : escapedTerm + "%";
+    }
+
+    //Os caracteres curinga do LIKE digitados pelo usuário são buscados literalmente
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+
+    public enum NameMatch {
+        PREFIX,
+        CONTAINS
+    }
+
+    @Cacheable(cacheNames = CacheConfig.ANIMES_CACHE, sync = true)
+    @Transactional(readOnly = true, noRollbackFor = BadRequestException.class)
+    public AnimeView findByIdOrThrowBadRequestException(Long id) {
+        Cache missingAnimesCache = cacheManager.getCache(CacheConfig.MISSING_ANIMES_CACHE);
+        if (missingAnimesCache.get(id) != null) {
+            throw new BadRequestException("Anime not found with id " + id);
+        }
+        return animeRepository.findViewById(id)
+                .orElseThrow(() -> {
+                    missingAnimesCache.put(id, Boolean.TRUE);
+                    return new BadRequestException("Anime not found with id " + id);
+                });
         /*
             Quando fazemos um request para endpoint passando um ID é não encontramos:
              - Muitos retornam 404 - Not Found, mas não se sabe se foi o id que não existe ou
@@ -56,13 +223,32 @@ public class AnimeService {
 
           OBS: Mais conversão/padrão do que regra, fica a critério do dev!!
 
+          @Cacheable (cache 'animes'): GET /animes/{id} e /animes/by-id/{id} só consultam o banco quando o anime
+          não está no cache, que é atualizado no save e invalidado no replace e no deleteById.
+          O cache guarda o AnimeView (record imutável) e não a entidade: a mesma instância é devolvida a todas as
+          requisições, uma entidade alterada por um chamador (ou com lazy loading fora da sessão) vazaria para as outras.
+          O replace e o deleteById não consultam o anime antes, o UPDATE/DELETE já informa se o id existe.
+          Cache negativo ('missingAnimes', TTL curto): ids inexistentes (links antigos, scrapers) respondem
+          o 400 sem consultar o banco, o id é removido do cache negativo ao salvar um anime com ele.
+          readOnly: a consulta pode ir para a réplica (ReplicaRoutingDataSource, que volta para o primário logo após
+          uma escrita desta instância). noRollbackFor: o put no cache negativo só é aplicado após o commit
+          (TransactionAwareCacheManagerProxy), com o rollback da BadRequestException ele seria descartado.
          */
     }
 
+    public String findTableVersion() {
+        return animeTableVersion.current();
+    }
+
     @Transactional //Habilita o princípio da atomicidade(rollback(): que Cancela uma transação se ocorre erros)
+    @CacheEvict(cacheNames = CacheConfig.MISSING_ANIMES_CACHE, key = "#result.id")
     public Anime save(AnimePostRequestBody animePostRequestBody) {
         Anime anime = AnimeMapper.INSTANCE.toAnime(animePostRequestBody);
-        return animeRepository.save(anime);
+        animeTableVersion.increment();
+        Anime savedAnime = animeRepository.save(anime);
+        //Sem @CachePut: ele colocaria a entidade retornada no cache 'animes', que guarda o AnimeView
+        cacheManager.getCache(CacheConfig.ANIMES_CACHE).put(savedAnime.getId(), AnimeView.from(savedAnime));
+        return savedAnime;
         /*
         Uma transação garante que todo o processo deve ser executado com êxito
         seguindo o princípio da atomicidade, que é tudo ou nada.
@@ -147,30 +333,131 @@ Outras propriedades importantes de @Transactional:
 
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.MISSING_ANIMES_CACHE, allEntries = true)
+    public int saveAll(Iterator<AnimePostRequestBody> animePostRequestBodies) {
+        Iterator<Anime> animes = new Iterator<>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return animePostRequestBodies.hasNext();
+            }
+
+            @Override
+            public Anime next() {
+                AnimePostRequestBody animePostRequestBody = animePostRequestBodies.next();
+                if (animePostRequestBody == null || animePostRequestBody.getName() == null
+                        || animePostRequestBody.getName().isEmpty()) {
+                    throw new BadRequestException("The anime name cannot be empty (item " + index + ")");
+                }
+                index++;
+                return AnimeMapper.INSTANCE.toAnime(animePostRequestBody);
+            }
+        };
+        int inserted = animeRepository.insertAll(animes);
+        animeTableVersion.increment();
+        return inserted;
+        /*
+        Os animes são convertidos e inseridos um a um, à medida que são lidos (lista JSON ou NDJSON),
+        em lotes de app.anime.batch.chunk-size. Tudo ou nada: um item inválido desfaz a transação inteira.
+        Os novos ids podem estar no cache negativo (missingAnimes), por isso ele é limpo.
+         */
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ANIMES_CACHE, allEntries = true)
+    public int deleteAll(List<Long> ids, String name, NameMatch match) {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        boolean hasName = name != null && !name.isBlank();
+        if (hasIds == hasName) {
+            throw new BadRequestException("Inform either the ids or the name of the animes to be deleted");
+        }
+        if (hasIds && ids.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("The anime id cannot be null");
+        }
+        int removed = hasIds
+                ? animeRepository.removeAllById(ids)
+                : animeRepository.removeByNameLike(namePattern(name, match));
+        animeTableVersion.increment();
+        return removed;
+        /*
+        DELETE por lista de ids (IN, em lotes de app.anime.batch.chunk-size) ou pelo nome (mesmo filtro do
+        searchByName), sem carregar os animes. ex:
+            DELETE http://localhost:8080/animes/admin/batch?ids=1,2,3
+            DELETE http://localhost:8080/animes/admin/batch?name=naru&match=PREFIX
+        Não se sabe quais ids foram removidos, por isso o cache 'animes' é limpo inteiro.
+         */
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ANIMES_CACHE, allEntries = true)
+    public int replaceAll(List<AnimePutRequestBody> animePutRequestBodies) {
+        Map<Long, String> namesById = new LinkedHashMap<>();
+        for (int index = 0; index < animePutRequestBodies.size(); index++) {
+            AnimePutRequestBody animePutRequestBody = animePutRequestBodies.get(index);
+            if (animePutRequestBody == null || animePutRequestBody.getId() == null) {
+                throw new BadRequestException("The anime id cannot be null (item " + index + ")");
+            }
+            if (animePutRequestBody.getName() == null || animePutRequestBody.getName().isEmpty()) {
+                throw new BadRequestException("The anime name cannot be empty (item " + index + ")");
+            }
+            if (namesById.putIfAbsent(animePutRequestBody.getId(), animePutRequestBody.getName()) != null) {
+                throw new BadRequestException("Duplicated anime id " + animePutRequestBody.getId() + " (item " + index + ")");
+            }
+        }
+        int updated = animeRepository.updateNames(namesById);
+        animeTableVersion.increment();
+        return updated;
+        /*
+        Renomeia todos os animes com UPDATE ... SET name = CASE id ... END, em lotes, dentro de uma única
+        transação: tudo ou nada. Ids inexistentes são ignorados, o retorno é a quantidade de animes alterados.
+         */
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ANIMES_CACHE, key = "#id")
     public void deleteById(Long id) {
-        animeRepository.delete(findByIdOrThrowBadRequestException(id));
+        if (animeRepository.removeById(id) == 0) {
+            throw new BadRequestException("Anime not found with id " + id);
+        }
+        animeTableVersion.increment();
         /*
-            Irá buscar o anime pelo id e caso não encontrar irá lançar a bad request
-            definida no findById.
-            Caso contrário irá remover o anime corretamente.
+            Um único DELETE ... WHERE id = ?, sem buscar o anime antes.
+            Nenhuma linha removida significa que o anime não existe: mesma bad request do findById.
          */
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ANIMES_CACHE, key = "#animePutRequestBody.id")
     public void replace(AnimePutRequestBody animePutRequestBody) {
-        Anime savedAnime = findByIdOrThrowBadRequestException(animePutRequestBody.getId());
         Anime anime = AnimeMapper.INSTANCE.toAnime(animePutRequestBody);
-        anime.setId(savedAnime.getId());
-        animeRepository.save(anime);
+        if (anime.getName() == null || anime.getName().isEmpty()) {
+            throw new BadRequestException("The anime name cannot be empty");
+        }
+        Long expectedVersion = animePutRequestBody.getVersion();
+        if (expectedVersion == null) {
+            if (animeRepository.updateNameById(anime.getId(), anime.getName()) == 0) {
+                throw new BadRequestException("Anime not found with id " + anime.getId());
+            }
+        } else if (animeRepository.updateNameByIdAndVersion(anime.getId(), anime.getName(), expectedVersion) == 0) {
+            if (!animeRepository.existsById(anime.getId())) {
+                throw new BadRequestException("Anime not found with id " + anime.getId());
+            }
+            throw new ConflictException("The anime " + anime.getId() + " was modified, expected version "
+                    + expectedVersion);
+        }
+        animeTableVersion.increment();
 
         /*
-        lembrar-do encadeamento das chamadas dos method.
-            1° - Pesquisar o anime pelo id, se não existir lança bad request.
-            2° - Para ter certeza que estamos atualziado um anime existente informamos o
-                id do anime ecnontrado na base de dados.
-            3° - Agora a gente passa os dados do anime dto para o anime que será atualziado
-                na base de dados.
-            4° - chama o method save, que irá atualizar o objeto já existente, ou seja seu id não é
-                mais null. save-assume duas funções em razão de ID's null (salva) ou não (atualiza).
+        Um único UPDATE ... WHERE id = ?, que retorna a quantidade de linhas alteradas.
+        O UPDATE em JPQL não passa pelo Bean Validation da entidade (@NotEmpty do name), por isso a validação aqui.
+        Com a version informada (lock otimista) o UPDATE também filtra pela versão: nenhuma linha alterada e o
+        anime existente significa que outra requisição o alterou antes, 409 Conflict em vez de sobrescrever.
+        ANTES eram 3 consultas: findById (SELECT), save de um anime desanexado (merge = outro SELECT) e o UPDATE.
+            1° - Passamos os dados do anime dto para um anime.
+            2° - O UPDATE só altera o anime se o id existir na base de dados.
+            3° - Nenhuma linha alterada significa que o anime não existe: mesma bad request do findById.
 
         EXTRA: Existe outras forma de passar os dados do DTO para o objeto que irá ser salvo/atualziado
             - recurso:  BeanUtils.copyProperties("Obj-que-irá-receber", "obj-que irá-passar")
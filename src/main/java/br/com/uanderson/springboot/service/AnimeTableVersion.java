@@ -0,0 +1,153 @@
+package br.com.uanderson.springboot.service;
+
+import br.com.uanderson.springboot.repository.AnimeTableVersionRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Versão da tabela anime, usada como ETag das listagens (GET /animes e /animes/all) e como geração do
+ * AnimePageCache e do count CACHED.
+ * <p>
+ * A versão é a sequence anime_table_version_seq (AnimeTableVersionRepository), avançada após o commit de cada
+ * escrita de anime (increment), então é a mesma em todas as instâncias e só muda depois que a escrita já é visível.
+ * O nextval não trava nenhuma linha: as escritas concorrentes não esperam umas pelas outras. Ele roda no
+ * applicationTaskExecutor, fora da requisição: o PUT e o DELETE continuam com um único statement.
+ * Ler a versão não percorre a tabela anime; ainda assim a versão lida fica guardada por até recheck-interval para
+ * que os 304 das ETags não consultem o banco. Escritas feitas pelo AnimeService desta instância descartam a versão
+ * guardada após o commit, e a próxima leitura já consulta o banco.
+ * <p>
+ * Escritas de outras instâncias (e da aplicação reactive) aparecem em até recheck-interval. Uma escrita direto
+ * no banco só muda a versão se também chamar o nextval da anime_table_version_seq.
+ */
+@Component
+@Log4j2
+public class AnimeTableVersion {
+    private final AnimeTableVersionRepository animeTableVersionRepository;
+    private final Duration recheckInterval;
+    private final Executor executor;
+    private final Clock clock;
+    private final AtomicLong localWrites = new AtomicLong();
+    private final AtomicInteger pendingVersions = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile CachedVersion cachedVersion;
+
+    @Autowired
+    public AnimeTableVersion(AnimeTableVersionRepository animeTableVersionRepository,
+                             @Value("${app.anime.table-version.recheck-interval:1s}") Duration recheckInterval,
+                             @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        this(animeTableVersionRepository, recheckInterval, executor, Clock.systemUTC());
+    }
+
+    AnimeTableVersion(AnimeTableVersionRepository animeTableVersionRepository, Duration recheckInterval,
+                      Executor executor, Clock clock) {
+        this.animeTableVersionRepository = animeTableVersionRepository;
+        this.recheckInterval = recheckInterval;
+        this.executor = executor;
+        this.clock = clock;
+    }
+
+    public String current() {
+        long writes = localWrites.get();
+        CachedVersion current = cachedVersion;
+        if (current != null && current.isValid(writes, clock.instant())) {
+            return current.version();
+        }
+        lock.lock();
+        try {
+            writes = localWrites.get();
+            current = cachedVersion;
+            if (current == null || !current.isValid(writes, clock.instant())) {
+                boolean pending = pendingVersions.get() > 0;
+                long version = animeTableVersionRepository.findVersion();
+                current = new CachedVersion(writes, pending ? version + "." + writes : String.valueOf(version),
+                        clock.instant().plus(recheckInterval));
+                cachedVersion = current;
+            }
+            return current.version();
+        } finally {
+            lock.unlock();
+        }
+        /*
+        Só uma requisição consulta o banco quando a versão expira, as demais esperam por ela.
+        ReentrantLock em vez de synchronized: a consulta não prende a thread carregadora das virtual threads.
+        localWrites é lido ANTES da consulta: se um commit acontecer durante a consulta, a versão lida já
+        nasce inválida e a próxima leitura consulta o banco de novo.
+        Com um nextval desta instância ainda pendente, a sequence ainda tem o valor de antes da escrita: a versão
+        ganha o sufixo .localWrites (ex: 41.3), que nunca é igual a uma versão anterior, para que uma listagem logo
+        após a própria escrita não responda 304 nem use a página em cache de antes dela.
+         */
+    }
+
+    public void increment() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            scheduleNextVersion();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                scheduleNextVersion();
+            }
+        });
+        /*
+        Deve ser chamado dentro da transação da escrita, o nextval só é executado após o commit: uma leitura que já
+        enxerga a versão nova também enxerga os animes alterados, e um rollback não muda a versão.
+        Se o nextval fosse executado dentro da transação (ele não é desfeito nem espera o commit), uma leitura
+        concorrente poderia guardar a versão nova com os animes antigos, e o cliente ficaria com os dados antigos
+        (304) até a próxima escrita.
+        Nas outras instâncias, entre o commit e o nextval (ou se ele falhar), um If-None-Match com a versão anterior
+        ainda responde 304.
+        As listagens leem a versão ANTES de consultar os animes pelo mesmo motivo.
+         */
+    }
+
+    private void scheduleNextVersion() {
+        pendingVersions.incrementAndGet();
+        localWrites.incrementAndGet();
+        try {
+            executor.execute(this::nextVersion);
+        } catch (RejectedExecutionException e) {
+            nextVersion();//Executor encerrado (shutdown): na própria thread
+        }
+        /*
+        O nextval fora da requisição: a resposta do PUT/DELETE não espera um segundo statement. pendingVersions e
+        localWrites são incrementados antes (nesta ordem), e a leitura seguinte desta instância já vê a escrita.
+        Se a aplicação parar antes do nextval, a versão só muda na próxima escrita (como em uma falha do nextval).
+         */
+    }
+
+    private void nextVersion() {
+        try {
+            animeTableVersionRepository.nextVersion();
+        } catch (DataAccessException e) {
+            //A escrita já foi confirmada: a requisição não falha, a versão muda na próxima escrita
+            log.warn("Could not advance the anime table version: {}", e.getMostSpecificCause().getMessage());
+        } finally {
+            pendingVersions.decrementAndGet();
+            localWrites.incrementAndGet();
+        }
+    }
+
+    private record CachedVersion(long localWrites, String version, Instant expiresAt) {
+        boolean isValid(long currentLocalWrites, Instant now) {
+            return localWrites == currentLocalWrites && now.isBefore(expiresAt);
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package br.com.uanderson.springboot.service;
 
+import br.com.uanderson.springboot.config.CacheConfig;
 import br.com.uanderson.springboot.repository.DevDojoUserRepository;
-import lombok.RequiredArgsConstructor;
+import br.com.uanderson.springboot.security.CredentialCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -10,14 +15,58 @@ import org.springframework.stereotype.Service;
 import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 public class DevDojoUserDetailsService implements UserDetailsService {
     private final DevDojoUserRepository devDojoUserRepository;
+    private final CacheManager cacheManager;
+    private final CredentialCache credentialCache;
+    private final Timer loadTimer;
+
+    public DevDojoUserDetailsService(DevDojoUserRepository devDojoUserRepository, CacheManager cacheManager,
+                                     CredentialCache credentialCache, MeterRegistry meterRegistry) {
+        this.devDojoUserRepository = devDojoUserRepository;
+        this.cacheManager = cacheManager;
+        this.credentialCache = credentialCache;
+        this.loadTimer = Timer.builder("user.details.load")
+                .description("Time to load the user details from the database (cache misses only)")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return Optional.ofNullable(devDojoUserRepository.findByUsername(username))
+        long generation = credentialCache.generation(username);//ANTES da consulta
+        Cache userDetailsCache = cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+        CachedUserDetails cached;
+        try {
+            cached = userDetailsCache.get(username, () -> new CachedUserDetails(load(username), generation));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof UsernameNotFoundException usernameNotFoundException) {
+                throw usernameNotFoundException;
+            }
+            throw e;
+        }
+        if (cached.generation() != credentialCache.generation(username)) {
+            //Carregado antes de uma alteração do usuário: descartado, a consulta é refeita sem guardar
+            userDetailsCache.evict(username);
+            return load(username);
+        }
+        return cached.userDetails();
+        /*
+         Só consulta o banco quando o usuário não está no cache (userDetails), as invalidações
+         são feitas pelo DevDojoUserService ao salvar, alterar ou remover um usuário (CredentialCache.evict).
+         Cache.get(key, loader): requisições simultâneas do mesmo username fazem apenas 1 consulta no banco.
+         A geração do usuário (a mesma do CredentialCache) é lida antes da consulta: um UserDetails carregado
+         antes de uma alteração e guardado depois do evict é reconhecido e não é usado.
+         Usuário não encontrado (exception) não é guardado no cache.
+         */
+    }
+
+    private UserDetails load(String username) {
+        return loadTimer.record(() -> Optional.ofNullable(devDojoUserRepository.findByUsername(username)))
                 .orElseThrow(() -> new UsernameNotFoundException("DevDojo user not found"));
     }
 
+    private record CachedUserDetails(UserDetails userDetails, long generation) {
+    }
+
 }
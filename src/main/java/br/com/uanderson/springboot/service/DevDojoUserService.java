@@ -1,31 +1,56 @@
 package br.com.uanderson.springboot.service;
 
+import br.com.uanderson.springboot.config.CacheConfig;
+import br.com.uanderson.springboot.config.MetricsConfig;
 import br.com.uanderson.springboot.domain.DevDojoUserDetails;
 import br.com.uanderson.springboot.exception.BadRequestException;
 import br.com.uanderson.springboot.mapper.DevDojoUserMapper;
+import br.com.uanderson.springboot.projection.DevDojoUserView;
 import br.com.uanderson.springboot.repository.DevDojoUserRepository;
 import br.com.uanderson.springboot.requests.DevDojoUserPostRequest;
 import br.com.uanderson.springboot.requests.DevDojoUserPutRequest;
+import br.com.uanderson.springboot.security.CredentialCache;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)//Um timer por método (tags class e method), histogramas e SLOs no application.yml
 public class DevDojoUserService {
     private final DevDojoUserRepository devDojoUserRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CredentialCache credentialCache;
+    private final CacheManager cacheManager;
 
     public DevDojoUserDetails saveUser(DevDojoUserPostRequest devDojoUserPostRequest) {
         DevDojoUserDetails user = DevDojoUserMapper.INSTANCE.toDevDojoUser(devDojoUserPostRequest);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return devDojoUserRepository.save(user);
+        DevDojoUserDetails savedUser = devDojoUserRepository.save(user);
+        evictUserCaches(savedUser.getUsername());
+        return savedUser;
     }
 
-    public List<DevDojoUserDetails> listAllNoPageable() {
-        return devDojoUserRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<DevDojoUserView> listAllNoPageable() {
+        return devDojoUserRepository.findAllViews();
+    }
+
+    @Transactional(readOnly = true)
+    public DevDojoUserView findViewByIdOrThrowBadRequestException(Long id) {
+        return devDojoUserRepository.findViewById(id)
+                .orElseThrow(() -> new BadRequestException("User not found"));
+        /*
+        Leituras do GET /users: projeção sem a senha (hash BCrypt), montada direto da consulta, sem entidade
+        gerenciada nem dirty checking. O findByIdOrThrowBadRequestException continua carregando a entidade,
+        usada pelo replaceUser/deleteUserById.
+         */
     }
 
     public DevDojoUserDetails findByIdOrThrowBadRequestException(Long id) {
@@ -37,12 +62,26 @@ public class DevDojoUserService {
         DevDojoUserDetails savedUser = findByIdOrThrowBadRequestException(devDojoUserPutRequest.getId());
         DevDojoUserDetails user = DevDojoUserMapper.INSTANCE.toDevDojoUser(devDojoUserPutRequest);
         user.setId(savedUser.getId());
-        return devDojoUserRepository.save(user);
+        DevDojoUserDetails replacedUser = devDojoUserRepository.save(user);
+        evictUserCaches(savedUser.getUsername());
+        evictUserCaches(user.getUsername());
+        return replacedUser;
     }
 
     public void deleteUserById(Long id) {
         DevDojoUserDetails userToDelete = findByIdOrThrowBadRequestException(id);
         devDojoUserRepository.deleteById(userToDelete.getId());
+        evictUserCaches(userToDelete.getUsername());
+    }
+
+    private void evictUserCaches(String username) {
+        //Invalida o usuário nos caches de autenticação: a nova geração descarta as credenciais já validadas e o
+        //UserDetails, inclusive os carregados antes desta alteração e guardados depois (sem percorrer os caches)
+        credentialCache.evict(username);
+        Cache userDetailsCache = cacheManager.getCache(CacheConfig.USER_DETAILS_CACHE);
+        if (userDetailsCache != null && username != null) {
+            userDetailsCache.evict(username);
+        }
     }
 
 }
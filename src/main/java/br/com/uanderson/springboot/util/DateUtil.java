@@ -6,7 +6,10 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 @Component
 public class DateUtil {
+    //DateTimeFormatter é imutável e thread-safe: criado uma única vez, e não a cada chamada
+    private static final DateTimeFormatter DATABASE_STYLE = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
+
     public String formatLocalDateTimeToDatabaseStyle(LocalDateTime localDateTime){
-        return DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss").format(localDateTime);
+        return DATABASE_STYLE.format(localDateTime);
     }
 }
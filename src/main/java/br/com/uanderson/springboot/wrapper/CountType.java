@@ -0,0 +1,10 @@
+package br.com.uanderson.springboot.wrapper;
+
+/**
+ * Como o totalElements de uma página foi obtido (campo totalElementsType do GET /animes).
+ */
+public enum CountType {
+    EXACT, // select count(*) a cada requisição
+    CACHED, // count(*) reaproveitado até a próxima escrita de anime ou até o TTL
+    ESTIMATED // Estatística do PostgreSQL (pg_class.reltuples), sem percorrer a tabela
+}
@@ -0,0 +1,28 @@
+package br.com.uanderson.springboot.wrapper;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.util.Converter;
+import lombok.Getter;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Page que informa como o total foi obtido: serializada com o mesmo JSON do Page mais o campo
+ * {@code totalElementsType} (EXACT, CACHED ou ESTIMATED).
+ *
+ * @param <T> tipo dos elementos da página.
+ */
+@Getter
+@JsonSerialize(converter = Converter.None.class)
+//O Spring Data registra um mixin no PageImpl (@JsonSerialize(converter = ...)) que é herdado pelas subclasses
+//e serializa só os campos do PageImpl, sem o totalElementsType. None: serialização normal da CountedPage.
+public class CountedPage<T> extends PageImpl<T> {
+    private final CountType totalElementsType; // Apenas EXACT garante que totalElements/totalPages são exatos
+
+    public CountedPage(List<T> content, Pageable pageable, long total, CountType totalElementsType) {
+        super(content, pageable, total);
+        this.totalElementsType = totalElementsType;
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.uanderson.springboot.wrapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Página da paginação por cursor (keyset): GET /animes?after={nextCursor}&size=5
+ * <p>
+ * Diferente do Page, não tem totalElements/totalPages, pois não é feito o count(*).
+ *
+ * @param <T> tipo dos elementos da página.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+    private final List<T> content; // Elementos da página atual
+    private final int size; // Tamanho da página solicitado
+    private final String nextCursor; // Cursor opaco da próxima página, null na última página
+
+    public boolean isLast() {
+        return nextCursor == null;
+    }
+}
@@ -17,6 +17,8 @@ public class PageableResponse<T> extends PageImpl<T> {
     private boolean last; // Indica se esta é a última página
     private int totalPages; // Número total de páginas
     private int numberOfElements; // Número de elementos na página atual
+    private boolean counted; // false: resposta de GET /animes?count=false (Slice), sem totalElements/totalPages
+    private CountType totalElementsType; // Como o total foi obtido (EXACT, CACHED ou ESTIMATED), null quando não informado
 
     /**
      * Construtor personalizado usado para deserializar a resposta JSON em um objeto PageableResponse.
@@ -24,11 +26,12 @@ public class PageableResponse<T> extends PageImpl<T> {
      * @param content Lista de elementos contidos na página.
      * @param number Número da página atual (base zero).
      * @param size Tamanho da página (número de elementos por página).
-     * @param totalElements Número total de elementos disponíveis.
+     * @param totalElements Número total de elementos disponíveis, null quando a resposta é um Slice (count=false).
      * @param last Indica se esta é a última página.
      * @param first Indica se esta é a primeira página.
-     * @param totalPages Número total de páginas.
+     * @param totalPages Número total de páginas, null quando a resposta é um Slice (count=false).
      * @param numberOfElements Número de elementos na página atual.
+     * @param totalElementsType Como o totalElements foi obtido, null nas respostas sem esse campo.
      * @param pageable Informações sobre a paginação (não usado diretamente).
      * @param sort Informações sobre a ordenação (não usado diretamente).
      */
@@ -37,21 +40,31 @@ public class PageableResponse<T> extends PageImpl<T> {
             @JsonProperty("content") List<T> content,
             @JsonProperty("number") int number,
             @JsonProperty("size") int size,
-            @JsonProperty("totalElements") int totalElements,
+            @JsonProperty("totalElements") Long totalElements,
             @JsonProperty("last") boolean last,
             @JsonProperty("first") boolean first,
-            @JsonProperty("totalPages") int totalPages,
+            @JsonProperty("totalPages") Integer totalPages,
             @JsonProperty("numberOfElements") int numberOfElements,
+            @JsonProperty("totalElementsType") CountType totalElementsType,
             @JsonProperty("pageable") JsonNode pageable,
             @JsonProperty("sort") JsonNode sort) {
         // Chama o construtor da superclasse PageImpl para inicializar a página com os dados fornecidos
-        super(content, PageRequest.of(number, size), totalElements);
+        super(content, PageRequest.of(number, size), totalElements != null
+                ? totalElements
+                : (long) number * size + content.size() + (last ? 0 : 1));
 
         // Inicializa os atributos adicionais da classe PageableResponse
         this.last = last;
         this.first = first;
-        this.totalPages = totalPages;
+        this.totalPages = totalPages != null ? totalPages : number + (last ? 1 : 2);
         this.numberOfElements = numberOfElements;
+        this.counted = totalElements != null;
+        this.totalElementsType = totalElementsType;
+        /*
+        Slice (sem count): o total não é conhecido, então totalElements/totalPages são o mínimo que se sabe
+        (as páginas já vistas + 1 se existe próxima). Assim o hasNext()/isLast() continuam corretos,
+        mas o total só deve ser usado quando isCounted() for true.
+         */
     }
 
     /*
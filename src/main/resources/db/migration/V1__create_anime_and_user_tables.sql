@@ -0,0 +1,14 @@
+-- Schema inicial, igual ao gerado pelo ddl-auto antes das migrações.
+-- Bancos que já têm as tabelas não executam este script: o baseline-on-migrate os marca como V1.
+CREATE TABLE IF NOT EXISTS anime (
+    id   bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name varchar(255)
+);
+
+CREATE TABLE IF NOT EXISTS dev_dojo_user_details (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    authorities varchar(255),
+    name        varchar(255),
+    password    varchar(255),
+    username    varchar(255)
+);
@@ -0,0 +1,7 @@
+-- Anime.id passou de IDENTITY para a sequence anime_seq (pooled, allocationSize 50): o Hibernate reserva
+-- 50 ids por nextval e consegue enviar os inserts em batch.
+CREATE SEQUENCE IF NOT EXISTS anime_seq INCREMENT BY 50;
+
+-- A sequence nova começaria em 1 e repetiria ids existentes: o próximo nextval passa a reservar
+-- ids acima do maior id da tabela.
+SELECT setval('anime_seq', (SELECT coalesce(max(id), 0) + 50 FROM anime));
@@ -0,0 +1,3 @@
+-- Coluna do @Version do Anime: ETag do GET /animes/{id} e lock otimista do PUT (AnimePutRequestBody.version).
+-- O DEFAULT preenche as linhas existentes com 0, a mesma versão de um anime recém-criado.
+ALTER TABLE anime ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,3 @@
+-- Versão da tabela anime (ETag das listagens, AnimePageCache e count CACHED): avançada com nextval após o commit
+-- de cada escrita de anime. Uma sequence não trava linhas, as escritas concorrentes não esperam umas pelas outras.
+CREATE SEQUENCE IF NOT EXISTS anime_table_version_seq;
@@ -0,0 +1,5 @@
+-- Índice único do username (@UniqueConstraint do DevDojoUserDetails): atende o findByUsername, executado a cada
+-- autenticação, e impede usuários duplicados. O ddl-auto: validate não confere índices nem constraints.
+-- IF NOT EXISTS: bancos criados pelo ddl-auto (baseline) já têm a constraint com este nome.
+-- Usuários com username duplicado precisam ser removidos antes desta migração.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_dev_dojo_user_details_username ON dev_dojo_user_details (username);
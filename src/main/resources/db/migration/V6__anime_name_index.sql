@@ -0,0 +1,7 @@
+-- Índice do findByName (igualdade, @Index idx_anime_name do Anime): o ddl-auto: validate não cria índices.
+-- CONCURRENTLY não bloqueia as escritas na tabela anime durante a criação. O Flyway reconhece o CONCURRENTLY e
+-- executa esta migração fora de uma transação, por isso ela tem uma única instrução.
+-- Exige spring.flyway.postgresql.transactional-lock: false (application-prd.yml): com o lock transacional (padrão
+-- do Flyway 10) a transação que segura o advisory lock fica aberta, e o CONCURRENTLY espera por ela para sempre.
+-- Se a criação falhar, o índice fica inválido: remova-o (DROP INDEX CONCURRENTLY idx_anime_name) antes de repetir.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_anime_name ON anime (name);
@@ -0,0 +1,13 @@
+-- Índice GIN com trigramas sobre lower(name): atende o LIKE 'naru%' (prefixo) e o LIKE '%ruto%' (trecho) do
+-- AnimeRepository.searchByNameLike, que um índice B-tree comum não atende.
+--
+-- PRÉ-REQUISITO (DBA): a extensão pg_trgm deve existir no banco antes do deploy. Criá-la exige permissões que o
+-- usuário da aplicação não deve ter, então ela não é criada aqui:
+--     CREATE EXTENSION IF NOT EXISTS pg_trgm;
+--
+-- CONCURRENTLY não bloqueia as escritas na tabela anime durante a criação. O Flyway reconhece o CONCURRENTLY e
+-- executa esta migração fora de uma transação, por isso ela tem uma única instrução.
+-- Exige spring.flyway.postgresql.transactional-lock: false (application-prd.yml): com o lock transacional (padrão
+-- do Flyway 10) a transação que segura o advisory lock fica aberta, e o CONCURRENTLY espera por ela para sempre.
+-- Se a criação falhar, o índice fica inválido: remova-o (DROP INDEX CONCURRENTLY idx_anime_name_trgm) antes de repetir.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_anime_name_trgm ON anime USING gin (lower(name) gin_trgm_ops);
@@ -0,0 +1,3 @@
+-- Executado pelo spring.sql.init em dev e nos testes (o ddl-auto não cria sequences sem @GeneratedValue).
+-- No profile prd a sequence é criada pela migração db/migration/V4__anime_table_version.sql.
+CREATE SEQUENCE IF NOT EXISTS anime_table_version_seq;
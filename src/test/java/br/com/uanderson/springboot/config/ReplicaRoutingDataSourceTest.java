@@ -0,0 +1,121 @@
+package br.com.uanderson.springboot.config;
+
+import org.assertj.core.api.Assertions;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+@DisplayName("Tests for ReplicaRoutingDataSource")
+class ReplicaRoutingDataSourceTest {
+    private static final Instant NOW = Instant.parse("2024-06-01T10:00:00Z");
+    private static final Duration MAX_LAG = Duration.ofSeconds(1);
+    private static final Duration LAG_CHECK_INTERVAL = Duration.ofSeconds(1);
+    private static final String WHERE_AM_I = "SELECT name FROM database_name";
+
+    private final Clock clockMock = Mockito.mock(Clock.class);
+    private JdbcTemplate replicaJdbcTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.when(clockMock.instant()).thenReturn(NOW);
+        DataSource primary = database("primary");
+        DataSource replica = database("replica");
+        replicaJdbcTemplate = new JdbcTemplate(replica);
+        replicaJdbcTemplate.execute("CREATE TABLE replica_lag (lag_seconds DOUBLE)");
+        replicaJdbcTemplate.update("INSERT INTO replica_lag VALUES (0.2)");
+
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primary, replica,
+                "SELECT lag_seconds FROM replica_lag", MAX_LAG, LAG_CHECK_INTERVAL, clockMock);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    @DisplayName("read-only transactions go to the replica when its lag is within max-lag")
+    void readOnlyTransaction_GoesToReplica_WhenLagIsWithinMaxLag() {
+        Assertions.assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("read-write transactions always go to the primary")
+    void readWriteTransaction_GoesToPrimary() {
+        String database = readWriteTransaction.execute(status -> whereAmI());
+
+        Assertions.assertThat(database).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("read-only transactions go to the primary when the replica lag exceeds max-lag")
+    void readOnlyTransaction_GoesToPrimary_WhenLagExceedsMaxLag() {
+        replicaJdbcTemplate.update("UPDATE replica_lag SET lag_seconds = 5");
+
+        Assertions.assertThat(readOnly()).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("read-only transactions go back to the replica on the next lag check after it catches up")
+    void readOnlyTransaction_GoesBackToReplica_WhenReplicaCatchesUp() {
+        replicaJdbcTemplate.update("UPDATE replica_lag SET lag_seconds = 5");
+        readOnly();
+        replicaJdbcTemplate.update("UPDATE replica_lag SET lag_seconds = 0");
+
+        Assertions.assertThat(readOnly()).isEqualTo("primary");//ainda dentro do lag-check-interval
+        BDDMockito.when(clockMock.instant()).thenReturn(NOW.plus(LAG_CHECK_INTERVAL));
+        Assertions.assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("read-only transactions go to the primary while the last write is younger than max-lag")
+    void readOnlyTransaction_GoesToPrimary_AfterAWriteUntilMaxLagPasses() {
+        readWriteTransaction.executeWithoutResult(status -> whereAmI());
+
+        Assertions.assertThat(readOnly()).isEqualTo("primary");
+        BDDMockito.when(clockMock.instant()).thenReturn(NOW.plus(MAX_LAG));
+        Assertions.assertThat(readOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    @DisplayName("read-only transactions go to the primary when the lag query fails")
+    void readOnlyTransaction_GoesToPrimary_WhenLagQueryFails() {
+        replicaJdbcTemplate.execute("DROP TABLE replica_lag");
+
+        Assertions.assertThat(readOnly()).isEqualTo("primary");
+    }
+
+    private String readOnly() {
+        return readOnlyTransaction.execute(status -> whereAmI());
+    }
+
+    private String whereAmI() {
+        return jdbcTemplate.queryForObject(WHERE_AM_I, String.class);
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE database_name (name VARCHAR(10))");
+        jdbcTemplate.update("INSERT INTO database_name VALUES (?)", name);
+        return dataSource;
+    }
+}
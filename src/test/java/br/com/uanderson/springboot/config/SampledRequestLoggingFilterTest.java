@@ -0,0 +1,60 @@
+package br.com.uanderson.springboot.config;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Tests for SampledRequestLoggingFilter")
+class SampledRequestLoggingFilterTest {
+    private static final Duration SLOW_THRESHOLD = Duration.ofSeconds(1);
+    private static final long FAST_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final SampledRequestLoggingFilter notSampled = new SampledRequestLoggingFilter(0, SLOW_THRESHOLD);
+
+    @Test
+    @DisplayName("shouldLog returns false for a successful fast request when it is not sampled")
+    void shouldLog_ReturnsFalse_WhenSuccessfulFastRequestIsNotSampled() {
+        Assertions.assertThat(notSampled.shouldLog(200, FAST_NANOS, false)).isFalse();
+        Assertions.assertThat(notSampled.shouldLog(400, FAST_NANOS, false)).isFalse();
+    }
+
+    @Test
+    @DisplayName("shouldLog returns true for server errors, exceptions and slow requests even when not sampled")
+    void shouldLog_ReturnsTrue_WhenServerErrorExceptionOrSlowRequest() {
+        Assertions.assertThat(notSampled.shouldLog(503, FAST_NANOS, false)).isTrue();
+        Assertions.assertThat(notSampled.shouldLog(200, FAST_NANOS, true)).isTrue();
+        Assertions.assertThat(notSampled.shouldLog(200, SLOW_THRESHOLD.toNanos(), false)).isTrue();
+    }
+
+    @Test
+    @DisplayName("shouldLog returns true for every request when the sample rate is 1")
+    void shouldLog_ReturnsTrue_WhenSampleRateIsOne() {
+        SampledRequestLoggingFilter everyRequest = new SampledRequestLoggingFilter(1, SLOW_THRESHOLD);
+
+        Assertions.assertThat(everyRequest.shouldLog(200, FAST_NANOS, false)).isTrue();
+    }
+
+    @Test
+    @DisplayName("doFilter continues the filter chain")
+    void doFilter_ContinuesFilterChain() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes");
+        MockFilterChain filterChain = new MockFilterChain();
+
+        new SampledRequestLoggingFilter(1, SLOW_THRESHOLD).doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        Assertions.assertThat(filterChain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    @DisplayName("constructor throws IllegalArgumentException when the sample rate is not between 0 and 1")
+    void constructor_ThrowsIllegalArgumentException_WhenSampleRateIsOutOfRange() {
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> new SampledRequestLoggingFilter(1.5, SLOW_THRESHOLD));
+    }
+}
@@ -0,0 +1,162 @@
+package br.com.uanderson.springboot.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Tests for SqlStatementTracker")
+class SqlStatementTrackerTest {
+    private static final Instant NOW = Instant.parse("2024-06-01T10:00:00Z");
+    private static final String FIND_ANIME = "select a1_0.id,a1_0.name from anime a1_0 where a1_0.id=?";
+    private static final String FIND_USER = "select d1_0.id,d1_0.name from dev_dojo_user_details d1_0 where d1_0.id=?";
+    private static final String INSERT_ANIME = "insert into anime (name,id) values (?,?)";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Clock clockMock = Mockito.mock(Clock.class);
+    private SqlStatementTracker sqlStatementTracker;
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.when(clockMock.instant()).thenReturn(NOW);
+        sqlStatementTracker = new SqlStatementTracker(meterRegistry, Duration.ofMillis(100), 2, 3, clockMock);
+    }
+
+    @Test
+    @DisplayName("end records the statements executed during the request by route pattern")
+    void end_RecordsStatementsPerRequest_ByRoutePattern() {
+        sqlStatementTracker.begin();
+        executed(FIND_ANIME, 1);
+        executed(FIND_USER, 1);
+        sqlStatementTracker.end("/animes/{id}");
+        executed(FIND_ANIME, 1);//Fora da requisição
+
+        DistributionSummary statements = meterRegistry.get(SqlStatementTracker.REQUEST_STATEMENTS_SUMMARY)
+                .tag("uri", "/animes/{id}")
+                .summary();
+        Assertions.assertThat(statements.count()).isEqualTo(1);
+        Assertions.assertThat(statements.totalAmount()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get(SqlStatementTracker.EXECUTION_TIMER).tag("type", "statement").timer().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("end counts a possible N+1 when the same select reaches the threshold within a request")
+    void end_CountsNPlusOne_WhenSameSelectReachesThreshold() {
+        sqlStatementTracker.begin();
+        executed(FIND_USER, 1);
+        for (int i = 0; i < 3; i++) {
+            executed(FIND_ANIME, 1);
+        }
+        for (int i = 0; i < 5; i++) {
+            executed(INSERT_ANIME, 1);//Lotes do batch insert, não é N+1
+        }
+        sqlStatementTracker.end("/animes");
+
+        Assertions.assertThat(meterRegistry.get(SqlStatementTracker.N_PLUS_ONE_COUNTER)
+                        .tag("uri", "/animes")
+                        .counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("end does not count a possible N+1 when no select reaches the threshold")
+    void end_DoesNotCountNPlusOne_WhenNoSelectReachesThreshold() {
+        sqlStatementTracker.begin();
+        executed(FIND_ANIME, 1);
+        executed(FIND_ANIME, 1);
+        executed(FIND_USER, 1);
+        sqlStatementTracker.end("/animes");
+
+        Assertions.assertThat(meterRegistry.find(SqlStatementTracker.N_PLUS_ONE_COUNTER).counter()).isNull();
+    }
+
+    @Test
+    @DisplayName("slowestStatements returns the slow-top statements above the threshold, slowest first")
+    void slowestStatements_ReturnsSlowTopStatementsAboveThreshold_SlowestFirst() {
+        executed(FIND_ANIME, 150);
+        executed(FIND_USER, 300);
+        executed(INSERT_ANIME, 120);
+        executed(FIND_ANIME, 250);
+        executed("select count(a1_0.id) from anime a1_0", 10);
+
+        List<SqlStatementTracker.SlowStatement> slowest = sqlStatementTracker.slowestStatements();
+
+        Assertions.assertThat(slowest).containsExactly(
+                new SqlStatementTracker.SlowStatement(FIND_USER, 1, 300, 300, NOW),
+                new SqlStatementTracker.SlowStatement(FIND_ANIME, 2, 250, 200, NOW));
+        Assertions.assertThat(meterRegistry.get(SqlStatementTracker.SLOW_COUNTER).counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("resetSlowStatements clears the slowest statements")
+    void resetSlowStatements_ClearsSlowestStatements() {
+        executed(FIND_ANIME, 150);
+
+        sqlStatementTracker.resetSlowStatements();
+
+        Assertions.assertThat(sqlStatementTracker.slowestStatements()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("statementInspector calls the configured inspector and the session listener tracks the inspected SQL")
+    void statementInspector_CallsConfiguredInspector_AndSessionListenerTracksInspectedSql() {
+        StatementInspector configuredInspector = sql -> "/* load */ " + sql;
+        StatementInspector statementInspector = sqlStatementTracker.statementInspector(configuredInspector);
+        SessionEventListener sessionEventListener = sqlStatementTracker.sessionEventListener();
+
+        sqlStatementTracker.begin();
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThat(statementInspector.inspect(FIND_ANIME)).isEqualTo("/* load */ " + FIND_ANIME);
+            sessionEventListener.jdbcExecuteStatementStart();
+            sessionEventListener.jdbcExecuteStatementEnd();
+        }
+        sqlStatementTracker.end("/animes/{id}");
+
+        Assertions.assertThat(meterRegistry.get(SqlStatementTracker.REQUEST_STATEMENTS_SUMMARY).summary().totalAmount())
+                .isEqualTo(3);
+        Assertions.assertThat(meterRegistry.get(SqlStatementTracker.N_PLUS_ONE_COUNTER).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("sessionEventListener tracks a batch as batch instead of the last prepared SQL")
+    void sessionEventListener_TracksBatchAsBatch_InsteadOfLastPreparedSql() {
+        StatementInspector statementInspector = sqlStatementTracker.statementInspector(null);
+        SessionEventListener sessionEventListener = sqlStatementTracker.sessionEventListener();
+
+        sqlStatementTracker.begin();
+        for (int i = 0; i < 3; i++) {
+            statementInspector.inspect(INSERT_ANIME);//addBatch
+            statementInspector.inspect(FIND_ANIME);//Preparado antes do executeBatch (ex: um select no meio do lote)
+            sessionEventListener.jdbcExecuteBatchStart();
+            sessionEventListener.jdbcExecuteBatchEnd();
+        }
+        sqlStatementTracker.end("/animes/batch");
+        sqlStatementTracker.executedBatch(TimeUnit.MILLISECONDS.toNanos(150));
+
+        Assertions.assertThat(meterRegistry.get(SqlStatementTracker.EXECUTION_TIMER).tag("type", "batch").timer().count())
+                .isEqualTo(4);
+        Assertions.assertThat(meterRegistry.get(SqlStatementTracker.EXECUTION_TIMER).tag("type", "statement").timer().count())
+                .isZero();
+        Assertions.assertThat(meterRegistry.find(SqlStatementTracker.N_PLUS_ONE_COUNTER).counter()).isNull();
+        Assertions.assertThat(sqlStatementTracker.slowestStatements())
+                .extracting(SqlStatementTracker.SlowStatement::sql)
+                .containsExactly(SqlStatementTracker.BATCH);
+    }
+
+    private void executed(String sql, long millis) {
+        sqlStatementTracker.executed(sql, TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
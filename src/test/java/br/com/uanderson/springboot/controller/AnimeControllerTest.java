@@ -1,13 +1,23 @@
 package br.com.uanderson.springboot.controller;
 
 import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.exception.BadRequestException;
+import br.com.uanderson.springboot.projection.AnimeView;
 import br.com.uanderson.springboot.requests.AnimePostRequestBody;
 import br.com.uanderson.springboot.requests.AnimePutRequestBody;
+import br.com.uanderson.springboot.responses.AnimeBatchResponse;
 import br.com.uanderson.springboot.service.AnimeService;
 import br.com.uanderson.springboot.util.AnimeCreator;
 import br.com.uanderson.springboot.util.AnimePostRequestBodyCreator;
 import br.com.uanderson.springboot.util.AnimePutRequestBodyCreator;
-import br.com.uanderson.springboot.util.DateUtil;
+import br.com.uanderson.springboot.wrapper.CountType;
+import br.com.uanderson.springboot.wrapper.CountedPage;
+import br.com.uanderson.springboot.wrapper.CursorPage;
+import br.com.uanderson.springboot.wrapper.PageableResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,14 +27,34 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
-
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 @ExtendWith(SpringExtension.class)//Usado para integrar o JUnit 5 com o Spring, permitindo que o contexto do Spring seja carregado e gerenciado durante os testes.
 class AnimeControllerTest {
@@ -34,15 +64,19 @@ class AnimeControllerTest {
     @Mock // Utiliza-se para todas as injenções de dependências(DI) que estão contidas na classe que queremos testar.
     //Ou seja, Cria um mock da dependência AnimeService que será injetado na classe AnimeController.
     private AnimeService animeServiceMock;
-    @Mock
-    // Cria um mock da dependência DateUtil que será injetado na classe AnimeController.
-    private DateUtil dateUtilMock;
+    @Spy
+    // ObjectMapper real, usado para escrever o NDJSON do streamAll
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    // Cache real das páginas serializadas, com o mesmo ObjectMapper
+    private AnimePageCache animePageCache = new AnimePageCache(new SimpleMeterRegistry(), objectMapper,
+            DataSize.ofMegabytes(1), Duration.ofMinutes(1), 10);
 
     @BeforeEach
         // Executa este método antes de cada método de teste (@Test), configurando os mocks e preparando o ambiente de teste.
     void setUp() {
         // Cria uma página contendo um anime válido para ser usada nos testes
-        PageImpl<Anime> animePage = new PageImpl<>(List.of(AnimeCreator.createValidAnime()));
+        CountedPage<Anime> animePage = new CountedPage<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 5), 1, CountType.EXACT);
 
     /*
     OBSERVATION: Sempre que quisermos testar um método do controller, devemos primeiro definir
@@ -52,22 +86,22 @@ class AnimeControllerTest {
 
         // Configura o mock animeServiceMock para retornar animePage quando o método listAll for chamado,
         // independentemente do argumento passado.
-        BDDMockito.when(animeServiceMock.listAllPageable(ArgumentMatchers.any()))
+        BDDMockito.when(animeServiceMock.listAllPageable(ArgumentMatchers.any(), ArgumentMatchers.any()))
                 .thenReturn(animePage); // Então, retorna o objeto animePage.
 
         // Configura o mock animeServiceMock para retornar uma lista contendo um anime válido quando o método listAllNoPageable for chamado.
         BDDMockito.when(animeServiceMock.listAllNoPageable())
-                .thenReturn(List.of(AnimeCreator.createValidAnime())); // Então, retorna uma lista com um anime válido.
+                .thenReturn(List.of(AnimeCreator.createValidAnimeView())); // Então, retorna uma lista com um anime válido.
 
         // Configura o mock animeServiceMock para retornar um anime válido quando o método findByIdOrThrowBadRequestException for chamado
         // com qualquer argumento do tipo Long.
         BDDMockito.when(animeServiceMock.findByIdOrThrowBadRequestException(ArgumentMatchers.anyLong()))
-                .thenReturn(AnimeCreator.createValidAnime()); // Então, retorna um anime válido.
+                .thenReturn(AnimeCreator.createValidAnimeView()); // Então, retorna um anime válido.
 
         // Configura o mock animeServiceMock para retornar uma lista contendo um anime válido quando o método findByName for chamado
         // com qualquer argumento do tipo String.
         BDDMockito.when(animeServiceMock.findByName(ArgumentMatchers.anyString()))
-                .thenReturn(List.of(AnimeCreator.createValidAnime())); // Então, retorna uma lista com um anime válido.
+                .thenReturn(List.of(AnimeCreator.createValidAnimeView())); // Então, retorna uma lista com um anime válido.
 
         // Configura o mock animeServiceMock para retornar um anime válido quando o método save for chamado
         // com qualquer argumento do tipo AnimePostRequestBody.
@@ -84,17 +118,24 @@ class AnimeControllerTest {
         BDDMockito.doNothing().when(animeServiceMock)//doNothing-não faça nada/Por estar chamando um method sem retorno
                 .deleteById(ArgumentMatchers.anyLong());
 
+        // ETag das listagens: versão da tabela
+        BDDMockito.when(animeServiceMock.findTableVersion())
+                .thenReturn("abc-1");
+
     }
 
 
     @Test
     @DisplayName("List returns list of anime inside page object when successful")
         // Verifica se o método listAll retorna uma lista de animes dentro de um objeto Page com sucesso.
-    void list_ReturnsListOfAnimeInsidePageObject_WhenSuccessful() {
+    void list_ReturnsListOfAnimeInsidePageObject_WhenSuccessful() throws Exception {
         String expectedName = AnimeCreator.createValidAnime().getName();//recuperando o name do animeValid criado para testes
 
-        Page<Anime> animePage = animeController.listAllPageable(null).getBody();//Recuperando todos os Page<Anime> do
-        // "banco" e como só deve ter 1, estamos pegando o seu conteúdo no caso anime.
+        byte[] json = animeController.listAllPageable(PageRequest.of(0, 5), true, null, webRequest()).getBody();//Recuperando a página
+        // serializada do "banco" e como só deve ter 1, estamos pegando o seu conteúdo no caso anime.
+        Page<Anime> animePage = objectMapper.readerFor(new TypeReference<PageableResponse<Anime>>() {})
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)//Como o ObjectMapper do Spring Boot
+                .readValue(json);
 
         Assertions.assertThat(animePage).isNotEmpty();//verifica se o objeto Page<Anime> não é vazio
 
@@ -112,7 +153,7 @@ class AnimeControllerTest {
         String expectedName = AnimeCreator.createValidAnime().getName();
         // Recupera o nome do anime criado para o teste.
 
-        List<Anime> animes = animeController.listAllNoPageable().getBody();
+        List<AnimeView> animes = animeController.listAllNoPageable(webRequest()).getBody();
         // Chama o método listAllNoPageable do controlador e obtém o corpo da resposta, que é uma lista de animes.
 
         Assertions.assertThat(animes)
@@ -120,7 +161,7 @@ class AnimeControllerTest {
                 .isNotEmpty() // Verifica se a lista de animes não está vazia.
                 .hasSize(1); // Verifica se a lista contém exatamente 1 anime.
 
-        Assertions.assertThat(animes.get(0).getName()).isEqualTo(expectedName);
+        Assertions.assertThat(animes.get(0).name()).isEqualTo(expectedName);
         // Verifica se o nome do primeiro anime na lista é igual ao nome esperado.
     }
 
@@ -131,13 +172,13 @@ class AnimeControllerTest {
         Long expectedId = AnimeCreator.createValidAnime().getId();
         // Recupera o ID do anime criado para o teste.
 
-        Anime anime = animeController.findById(1L).getBody();
+        AnimeView anime = animeController.findById(1L, webRequest()).getBody();
         // Chama o método findById do controlador com o ID 1 e obtém o corpo da resposta, que é um anime.
 
         Assertions.assertThat(anime).isNotNull();
         // Verifica se o objeto anime não é nulo.
 
-        Assertions.assertThat(anime.getId()).isNotNull().isEqualTo(expectedId);
+        Assertions.assertThat(anime.id()).isNotNull().isEqualTo(expectedId);
         // Verifica se o ID do anime não é nulo e é igual ao ID esperado.
     }
 
@@ -152,7 +193,7 @@ class AnimeControllerTest {
                 // Configura o mock animeServiceMock para retornar uma lista vazia quando findByName for chamado com qualquer string.
                 .thenReturn(Collections.emptyList());
 
-        List<Anime> animeList = animeController.findByName("anime").getBody();
+        List<AnimeView> animeList = animeController.findByName("anime").getBody();
         // Chama o método findByName do controlador com a string "anime" e obtém o corpo da resposta, que é uma lista de animes.
 
         Assertions.assertThat(animeList)
@@ -212,6 +253,227 @@ class AnimeControllerTest {
     }
 
 
+    @Test
+    @DisplayName("listAllByCursor returns page of animes with the next cursor when successful")
+    void listAllByCursor_ReturnsCursorPageOfAnimes_WhenSuccessful() {
+        BDDMockito.when(animeServiceMock.listAllAfter(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+                .thenReturn(new CursorPage<>(List.of(AnimeCreator.createValidAnime()), 1, "MQ"));
+
+        CursorPage<Anime> cursorPage = animeController.listAllByCursor("", 1).getBody();
+
+        Assertions.assertThat(cursorPage).isNotNull();
+        Assertions.assertThat(cursorPage.getContent()).containsExactly(AnimeCreator.createValidAnime());
+        Assertions.assertThat(cursorPage.getNextCursor()).isEqualTo("MQ");
+        Assertions.assertThat(cursorPage.isLast()).isFalse();
+    }
+
+
+    @Test
+    @DisplayName("streamAll writes one anime per line as NDJSON when successful")
+    void streamAll_WritesOneAnimePerLine_WhenSuccessful() throws Exception {
+        BDDMockito.doAnswer(invocation -> {
+            Consumer<AnimeView> consumer = invocation.getArgument(0);
+            consumer.accept(AnimeCreator.createValidAnimeView());
+            consumer.accept(AnimeView.from(AnimeCreator.createValidUpdateAnime()));
+            return null;
+        }).when(animeServiceMock).streamAll(ArgumentMatchers.any());
+
+        ResponseEntity<StreamingResponseBody> entity = animeController.streamAll(webRequest());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.getBody().writeTo(outputStream);
+
+        Assertions.assertThat(entity.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        Assertions.assertThat(outputStream.toString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"id\":1,\"name\":\"Hajime no Ippo\",\"version\":0}\n{\"id\":1,\"name\":\"Hajime no Ippo 2\",\"version\":1}\n");
+    }
+
+    @Test
+    @DisplayName("searchByName returns slice of animes when successful")
+    void searchByName_ReturnsSliceOfAnimes_WhenSuccessful() {
+        BDDMockito.when(animeServiceMock.searchByName(ArgumentMatchers.anyString(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnimeView()), PageRequest.of(0, 5), false));
+
+        Slice<AnimeView> animeSlice = animeController.searchByName("hajime", AnimeService.NameMatch.PREFIX, null).getBody();
+
+        Assertions.assertThat(animeSlice).isNotNull();
+        Assertions.assertThat(animeSlice.toList()).containsExactly(AnimeCreator.createValidAnimeView());
+    }
+
+    @Test
+    @DisplayName("saveAll returns the number of inserted animes when successful")
+    void saveAll_ReturnsInsertedCount_WhenSuccessful() {
+        BDDMockito.when(animeServiceMock.saveAll(ArgumentMatchers.any())).thenReturn(2);
+
+        ResponseEntity<AnimeBatchResponse> entity = animeController.saveAll(List.of(
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                AnimePostRequestBodyCreator.createAnimePostRequestBody()));
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(entity.getBody()).isEqualTo(AnimeBatchResponse.builder().inserted(2).build());
+    }
+
+    @Test
+    @DisplayName("saveAllNdjson reads one anime per line when successful")
+    void saveAllNdjson_ReadsOneAnimePerLine_WhenSuccessful() throws Exception {
+        List<String> names = new ArrayList<>();
+        BDDMockito.when(animeServiceMock.saveAll(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            Iterator<AnimePostRequestBody> animePostRequestBodies = invocation.getArgument(0);
+            animePostRequestBodies.forEachRemaining(animePostRequestBody -> names.add(animePostRequestBody.getName()));
+            return names.size();
+        });
+        InputStream body = new ByteArrayInputStream("{\"name\":\"Naruto\"}\n{\"name\":\"Bleach\"}\n"
+                .getBytes(StandardCharsets.UTF_8));
+
+        ResponseEntity<AnimeBatchResponse> entity = animeController.saveAllNdjson(body);
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(entity.getBody().getInserted()).isEqualTo(2);
+        Assertions.assertThat(names).containsExactly("Naruto", "Bleach");
+    }
+
+    @Test
+    @DisplayName("saveAllNdjson throws BadRequestException when a line is not valid JSON")
+    void saveAllNdjson_ThrowsBadRequestException_WhenLineIsInvalid() {
+        BDDMockito.when(animeServiceMock.saveAll(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            Iterator<AnimePostRequestBody> animePostRequestBodies = invocation.getArgument(0);
+            animePostRequestBodies.forEachRemaining(animePostRequestBody -> { });
+            return 0;
+        });
+        InputStream body = new ByteArrayInputStream("{\"name\":\"Naruto\"}\n{\"name\":\n"
+                .getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeController.saveAllNdjson(body))
+                .withMessageContaining("Invalid NDJSON line");
+    }
+
+    @Test
+    @DisplayName("deleteAll returns the number of deleted animes when successful")
+    void deleteAll_ReturnsDeletedCount_WhenSuccessful() {
+        BDDMockito.when(animeServiceMock.deleteAll(List.of(1L, 2L), null, AnimeService.NameMatch.PREFIX)).thenReturn(2);
+
+        ResponseEntity<AnimeBatchResponse> entity = animeController.deleteAll(List.of(1L, 2L), null, AnimeService.NameMatch.PREFIX);
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(entity.getBody()).isEqualTo(AnimeBatchResponse.builder().deleted(2).build());
+    }
+
+    @Test
+    @DisplayName("replaceAll returns the number of updated animes when successful")
+    void replaceAll_ReturnsUpdatedCount_WhenSuccessful() {
+        BDDMockito.when(animeServiceMock.replaceAll(ArgumentMatchers.anyList())).thenReturn(1);
+
+        ResponseEntity<AnimeBatchResponse> entity = animeController
+                .replaceAll(List.of(AnimePutRequestBodyCreator.createAnimePutRequestBody()));
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(entity.getBody()).isEqualTo(AnimeBatchResponse.builder().updated(1).build());
+    }
+
+    @Test
+    @DisplayName("findById returns the anime version as ETag when successful")
+    void findById_ReturnsAnimeVersionAsETag_WhenSuccessful() {
+        ResponseEntity<AnimeView> entity = animeController.findById(1L, webRequest());
+
+        Assertions.assertThat(entity.getHeaders().getETag()).isEqualTo("\"0\"");
+        Assertions.assertThat(entity.getHeaders().getCacheControl()).isEqualTo("no-cache, private");
+    }
+
+    @Test
+    @DisplayName("findById returns 304 loading the anime only once when If-None-Match matches the version")
+    void findById_ReturnsNotModifiedLoadingAnimeOnce_WhenIfNoneMatchMatchesVersion() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<AnimeView> entity = animeController.findById(1L, webRequest("\"0\"", response));
+
+        Assertions.assertThat(entity).isNull();
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        BDDMockito.verify(animeServiceMock).findByIdOrThrowBadRequestException(1L);
+    }
+
+    @Test
+    @DisplayName("findById returns the anime when If-None-Match does not match the version")
+    void findById_ReturnsAnime_WhenIfNoneMatchDoesNotMatchVersion() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<AnimeView> entity = animeController.findById(1L, webRequest("\"5\"", response));
+
+        Assertions.assertThat(entity.getBody()).isEqualTo(AnimeCreator.createValidAnimeView());
+        Assertions.assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"0\"");
+        BDDMockito.verify(animeServiceMock).findByIdOrThrowBadRequestException(1L);
+    }
+
+    @Test
+    @DisplayName("listAllPageable returns 304 without querying the animes when If-None-Match matches the table version")
+    void listAllPageable_ReturnsNotModified_WhenIfNoneMatchMatchesTableVersion() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<byte[]> entity = animeController.listAllPageable(PageRequest.of(0, 5), true, null, webRequest("\"abc-1\"", response));
+
+        Assertions.assertThat(entity).isNull();
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        BDDMockito.verify(animeServiceMock, Mockito.never()).listAllPageable(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("streamAll and listAllNoPageable return different ETags for the same table version")
+    void streamAll_ReturnsDifferentETagFromJson_WhenTableVersionIsTheSame() {
+        MockHttpServletResponse jsonResponse = new MockHttpServletResponse();
+        MockHttpServletResponse ndjsonResponse = new MockHttpServletResponse();
+
+        animeController.listAllNoPageable(webRequest(null, jsonResponse));
+        ResponseEntity<StreamingResponseBody> entity = animeController.streamAll(webRequest("\"abc-1\"", ndjsonResponse));
+
+        Assertions.assertThat(entity).isNotNull();
+        Assertions.assertThat(jsonResponse.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc-1\"");
+        Assertions.assertThat(ndjsonResponse.getHeader(HttpHeaders.ETAG)).isEqualTo("\"abc-1-ndjson\"");
+    }
+
+    private static ServletWebRequest webRequest() {
+        return webRequest(null, new MockHttpServletResponse());
+    }
+
+    private static ServletWebRequest webRequest(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+
+    @Test
+    @DisplayName("listAllPageable returns a slice without the total when count is false")
+    void listAllPageable_ReturnsSliceWithoutTotal_WhenCountIsFalse() throws Exception {
+        BDDMockito.when(animeServiceMock.listAllSlice(ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 1), true));
+
+        byte[] json = animeController.listAllPageable(PageRequest.of(0, 1), false, null, webRequest()).getBody();
+        PageableResponse<Anime> animePage = objectMapper.readerFor(new TypeReference<PageableResponse<Anime>>() {})
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(json);
+
+        Assertions.assertThat(new String(json, StandardCharsets.UTF_8)).doesNotContain("totalElements");
+        Assertions.assertThat(animePage.isCounted()).isFalse();
+        Assertions.assertThat(animePage.hasNext()).isTrue();
+        Assertions.assertThat(animePage.toList()).containsExactly(AnimeCreator.createValidAnime());
+        BDDMockito.verify(animeServiceMock, Mockito.never()).listAllPageable(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("listAllPageable returns the kind of total count when countType is informed")
+    void listAllPageable_ReturnsTotalElementsType_WhenCountTypeIsInformed() throws Exception {
+        BDDMockito.when(animeServiceMock.listAllPageable(ArgumentMatchers.any(), ArgumentMatchers.eq(CountType.ESTIMATED)))
+                .thenReturn(new CountedPage<>(List.of(AnimeCreator.createValidAnime()), PageRequest.of(0, 1), 1000, CountType.ESTIMATED));
+
+        byte[] json = animeController.listAllPageable(PageRequest.of(0, 1), true, CountType.ESTIMATED, webRequest()).getBody();
+        PageableResponse<Anime> animePage = objectMapper.readerFor(new TypeReference<PageableResponse<Anime>>() {})
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(json);
+
+        Assertions.assertThat(animePage.getTotalElementsType()).isEqualTo(CountType.ESTIMATED);
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(1000);
+        Assertions.assertThat(animePage.isCounted()).isTrue();
+    }
 }
 /*
 @ExtendWith(SpringExtension.class)
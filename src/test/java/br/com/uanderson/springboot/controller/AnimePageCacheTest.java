@@ -0,0 +1,69 @@
+package br.com.uanderson.springboot.controller;
+
+import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.util.AnimeCreator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@DisplayName("Tests for AnimePageCache")
+class AnimePageCacheTest {
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 5, Sort.by("id").descending());
+
+    private final AnimePageCache animePageCache = new AnimePageCache(new SimpleMeterRegistry(), new ObjectMapper(),
+            DataSize.ofMegabytes(1), Duration.ofMinutes(1), 2);
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @Test
+    @DisplayName("get returns the cached JSON without querying again when generation and page are the same")
+    void get_ReturnsCachedJson_WhenGenerationAndPageAreTheSame() {
+        byte[] first = animePageCache.get("a-1", FIRST_PAGE, "page", loader());
+        byte[] second = animePageCache.get("a-1", FIRST_PAGE, "page", loader());
+
+        Assertions.assertThat(second).isSameAs(first);
+        Assertions.assertThat(new String(first, StandardCharsets.UTF_8)).contains("\"name\":\"Hajime no Ippo\"");
+        Assertions.assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("get queries again when the generation, size, sort or view changes")
+    void get_QueriesAgain_WhenGenerationSizeSortOrViewChanges() {
+        animePageCache.get("a-1", FIRST_PAGE, "page", loader());
+        animePageCache.get("a-2", FIRST_PAGE, "page", loader());
+        animePageCache.get("a-2", PageRequest.of(0, 10, FIRST_PAGE.getSort()), "page", loader());
+        animePageCache.get("a-2", PageRequest.of(0, 5, Sort.by("name")), "page", loader());
+        animePageCache.get("a-2", FIRST_PAGE, "slice", loader());
+        animePageCache.get("a-2", FIRST_PAGE, "ESTIMATED", loader());
+
+        Assertions.assertThat(queries).hasValue(6);
+    }
+
+    @Test
+    @DisplayName("get does not cache pages after max-page")
+    void get_DoesNotCachePages_WhenPageIsAfterMaxPage() {
+        animePageCache.get("a-1", PageRequest.of(2, 5), "page", loader());
+        animePageCache.get("a-1", PageRequest.of(2, 5), "page", loader());
+
+        Assertions.assertThat(queries).hasValue(2);
+    }
+
+    private Supplier<Page<Anime>> loader() {
+        return () -> {
+            queries.incrementAndGet();
+            return new PageImpl<>(List.of(AnimeCreator.createValidAnime()), FIRST_PAGE, 1);
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.uanderson.springboot.domain;
+
+import br.com.uanderson.springboot.security.GrantedAuthorityPool;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+
+@DisplayName("Tests for DevDojoUserDetails")
+class DevDojoUserDetailsTest {
+
+    @Test
+    @DisplayName("getAuthorities returns the same immutable list on every call")
+    void getAuthorities_ReturnsSameImmutableList_WhenCalledRepeatedly() {
+        DevDojoUserDetails user = createUser("ROLE_ADMIN,ROLE_USER");
+
+        Collection<? extends GrantedAuthority> authorities = user.getAuthorities();
+
+        Assertions.assertThat(user.getAuthorities()).isSameAs(authorities);
+        Assertions.assertThat(List.<GrantedAuthority>copyOf(authorities)).containsExactly(GrantedAuthorityPool.ROLE_ADMIN, GrantedAuthorityPool.ROLE_USER);
+        Assertions.assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(authorities::clear);
+    }
+
+    @Test
+    @DisplayName("getAuthorities shares the pooled authorities between users and ignores blanks")
+    void getAuthorities_SharesPooledAuthorities_WhenUsersHaveSameRoles() {
+        DevDojoUserDetails user = createUser("ROLE_ADMIN,ROLE_USER");
+        DevDojoUserDetails otherUser = createUser(" ROLE_ADMIN , ROLE_USER ,");
+
+        Assertions.assertThat(otherUser.getAuthorities())
+                .hasSize(2)
+                .first().isSameAs(user.getAuthorities().iterator().next());
+    }
+
+    @Test
+    @DisplayName("setAuthorities rebuilds the authority list")
+    void setAuthorities_RebuildsAuthorityList_WhenAuthoritiesChange() {
+        DevDojoUserDetails user = createUser("ROLE_USER");
+
+        user.setAuthorities("ROLE_ADMIN");
+
+        Assertions.assertThat(List.<GrantedAuthority>copyOf(user.getAuthorities())).containsExactly(GrantedAuthorityPool.ROLE_ADMIN);
+    }
+
+    private static DevDojoUserDetails createUser(String authorities) {
+        return DevDojoUserDetails.builder()
+                .name("Devdojo Academy")
+                .username("devdojo")
+                .password("{bcrypt}$2a$10$fRvLXfIR9Thb/RCYxJdG4uzPxrqla2H8ZAjy/Oc7xQQzFrZ2w1mRS")
+                .authorities(authorities)
+                .build();
+    }
+}
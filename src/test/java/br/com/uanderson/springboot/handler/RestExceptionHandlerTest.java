@@ -0,0 +1,51 @@
+package br.com.uanderson.springboot.handler;
+
+import br.com.uanderson.springboot.config.MetricsConfig;
+import br.com.uanderson.springboot.exception.BadRequestException;
+import br.com.uanderson.springboot.exception.BadRequestExceptionDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+@DisplayName("Tests for RestExceptionHandler")
+class RestExceptionHandlerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RestExceptionHandler restExceptionHandler = new RestExceptionHandler(meterRegistry);
+
+    @Test
+    @DisplayName("handleBadRequestException counts the bad request by exception and route pattern")
+    void handleBadRequestException_CountsBadRequest_ByExceptionAndRoutePattern() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes/5");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/animes/{id}");
+
+        ResponseEntity<BadRequestExceptionDetails> response = restExceptionHandler.handleBadRequestException(
+                new BadRequestException("Anime not found with id 5"), new ServletWebRequest(request));
+        restExceptionHandler.handleBadRequestException(
+                new BadRequestException("Anime not found with id 6"), new ServletWebRequest(request));
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        Assertions.assertThat(meterRegistry.get(MetricsConfig.BAD_REQUESTS_COUNTER)
+                        .tag("exception", "BadRequestException")
+                        .tag("uri", "/animes/{id}")
+                        .counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("handleBadRequestException counts the bad request with uri UNKNOWN when no route matched")
+    void handleBadRequestException_CountsBadRequestWithUnknownUri_WhenNoRouteMatched() {
+        restExceptionHandler.handleBadRequestException(new BadRequestException("User not found"),
+                new ServletWebRequest(new MockHttpServletRequest()));
+
+        Assertions.assertThat(meterRegistry.get(MetricsConfig.BAD_REQUESTS_COUNTER)
+                        .tag("uri", "UNKNOWN")
+                        .counter().count())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.uanderson.springboot.integration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Regras do SecurityConfig para os endpoints do actuator, usando os usuários em memória
+ * (admin_memory e user_memory), sem precisar salvar usuários no banco de dados.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+class ActuatorSecurityIT {
+    @Autowired
+    private TestRestTemplate testRestTemplate; // Sem autenticação, o rootUri já aponta para a porta aleatória.
+
+    @Test
+    @DisplayName("Health returns 200 without authentication")
+    void health_Returns200_WhenUserIsAnonymous() {
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/actuator/health", String.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("Slow queries returns 401 without authentication")
+    void slowQueries_Returns401_WhenUserIsAnonymous() {
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/actuator/slowqueries", String.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    @DisplayName("Slow queries returns 403 when user is not admin")
+    void slowQueries_Returns403_WhenUserIsNotAdmin() {
+        ResponseEntity<String> response = testRestTemplate.withBasicAuth("user_memory", "123")
+                .getForEntity("/actuator/slowqueries", String.class);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    @DisplayName("Slow queries can be read and reset when user is admin")
+    void slowQueries_ReturnsAndResetsStatements_WhenUserIsAdmin() {
+        TestRestTemplate admin = testRestTemplate.withBasicAuth("admin_memory", "123");
+
+        ResponseEntity<String> read = admin.getForEntity("/actuator/slowqueries", String.class);
+        ResponseEntity<Void> reset = admin.exchange("/actuator/slowqueries", HttpMethod.DELETE, null, Void.class);
+
+        Assertions.assertThat(read.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(reset.getStatusCode().is2xxSuccessful()).isTrue();
+    }
+}
@@ -7,6 +7,7 @@ import br.com.uanderson.springboot.repository.DevDojoUserRepository;
 import br.com.uanderson.springboot.requests.AnimePostRequestBody;
 import br.com.uanderson.springboot.util.AnimeCreator;
 import br.com.uanderson.springboot.util.AnimePostRequestBodyCreator;
+import br.com.uanderson.springboot.wrapper.CountType;
 import br.com.uanderson.springboot.wrapper.PageableResponse;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -71,17 +72,19 @@ class AnimeControllerIT {
         já que serão utilizados em várias partes do nosso código
         de teste para validar as configurações de segurança que
         implementamos.
+        Senha "123" com o hash BCrypt puro, como o DevDojoUserService salva: o PasswordEncoder da aplicação
+        é um BCryptPasswordEncoder (não o delegating), então o prefixo {bcrypt} faria a autenticação falhar (401).
     */
     private static final DevDojoUserDetails USER = DevDojoUserDetails.builder()
             .name("Devdojo Academy")
-            .password("{bcrypt}$2a$10$fRvLXfIR9Thb/RCYxJdG4uzPxrqla2H8ZAjy/Oc7xQQzFrZ2w1mRS")
+            .password("$2a$10$fRvLXfIR9Thb/RCYxJdG4uzPxrqla2H8ZAjy/Oc7xQQzFrZ2w1mRS")
             .username("devdojo")
             .authorities("ROLE_USER")
             .build();
 
     private static final DevDojoUserDetails ADMIN = DevDojoUserDetails.builder()
             .name("Uanderson Oliveira")
-            .password("{bcrypt}$2a$10$fRvLXfIR9Thb/RCYxJdG4uzPxrqla2H8ZAjy/Oc7xQQzFrZ2w1mRS")
+            .password("$2a$10$fRvLXfIR9Thb/RCYxJdG4uzPxrqla2H8ZAjy/Oc7xQQzFrZ2w1mRS")
             .username("uanderson")
             .authorities("ROLE_ADMIN,ROLE_USER")
             .build();
@@ -172,6 +175,48 @@ class AnimeControllerIT {
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("List with count=false returns the page without the total when successful")
+    void list_ReturnsPageWithoutTotal_WhenCountIsFalse() {
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        devDojoUserRepository.save(USER);
+
+        PageableResponse<Anime> animePage = testRestTemplateRoleUser.exchange(
+                "/animes?count=false",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<PageableResponse<Anime>>() {
+                }
+        ).getBody();
+
+        Assertions.assertThat(animePage).isNotNull();
+        Assertions.assertThat(animePage.isCounted()).isFalse();
+        Assertions.assertThat(animePage.hasNext()).isFalse();
+        Assertions.assertThat(animePage.toList()).containsExactly(savedAnime);
+    }
+
+    @Test
+    @DisplayName("List with countType returns the kind of total count when successful")
+    void list_ReturnsTotalElementsType_WhenCountTypeIsInformed() {
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        devDojoUserRepository.save(USER);
+
+        PageableResponse<Anime> animePage = testRestTemplateRoleUser.exchange(
+                "/animes?countType=CACHED&size=1",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<PageableResponse<Anime>>() {
+                }
+        ).getBody();
+
+        Assertions.assertThat(animePage).isNotNull();
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(animePage.getTotalElementsType()).isEqualTo(CountType.CACHED);
+    }
+
     @Test
     @DisplayName("List all returns list of anime when successful")
     void listAll_ReturnsListOfAnimes_WhenSuccessful() {
@@ -0,0 +1,30 @@
+package br.com.uanderson.springboot.projection;
+
+import br.com.uanderson.springboot.security.GrantedAuthorityPool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Tests for DevDojoUserView")
+class DevDojoUserViewTest {
+
+    @Test
+    @DisplayName("constructor parses the comma separated authorities into the pooled authorities")
+    void constructor_ParsesPooledAuthorities_WhenAuthoritiesAreCommaSeparated() {
+        DevDojoUserView user = new DevDojoUserView(1L, "Devdojo Academy", "devdojo", "ROLE_ADMIN,ROLE_USER");
+
+        Assertions.assertThat(user.authorities()).containsExactly(GrantedAuthorityPool.ROLE_ADMIN, GrantedAuthorityPool.ROLE_USER);
+    }
+
+    @Test
+    @DisplayName("authorities are serialized as a list of authority objects, like DevDojoUserDetails")
+    void serialize_WritesAuthoritiesAsListOfObjects_WhenSuccessful() throws Exception {
+        DevDojoUserView user = new DevDojoUserView(1L, "Devdojo Academy", "devdojo", "ROLE_ADMIN,ROLE_USER");
+
+        String json = new ObjectMapper().writeValueAsString(user);
+
+        Assertions.assertThat(json).isEqualTo("{\"id\":1,\"name\":\"Devdojo Academy\",\"username\":\"devdojo\","
+                + "\"authorities\":[{\"authority\":\"ROLE_ADMIN\"},{\"authority\":\"ROLE_USER\"}]}");
+    }
+}
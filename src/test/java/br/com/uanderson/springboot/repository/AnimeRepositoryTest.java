@@ -1,16 +1,25 @@
 package br.com.uanderson.springboot.repository;
 
 import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.projection.AnimeView;
 import br.com.uanderson.springboot.util.AnimeCreator;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.ConstraintViolationException;
 import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @DataJpaTest//Anotação focada em testes para os componentes do JPA
 @DisplayName("Tests for Anime Repository")//é usada no JUnit para fornecer um nome descritivo aos testes ou às classes de teste.
@@ -18,6 +27,8 @@ class AnimeRepositoryTest {//sem public pois estamos exportando tudo do Junit
 
     @Autowired
     private AnimeRepository animeRepository;
+    @Autowired
+    private EntityManager entityManager;
 
 
     //Conversão de criação de nomes de Test (Recomendando pelo Devdojo)
@@ -115,12 +126,194 @@ class AnimeRepositoryTest {//sem public pois estamos exportando tudo do Junit
         e que esperamos que contenha uma mensagem de erro, definida na nossa validação
         anteriomente, vale lembrar que a message deve está idêntica a definida nas validações dos atributos.
     */
+        //saveAndFlush: com o id por sequence o insert (e a validação) só acontece no flush, não mais no save
         Assertions.assertThatExceptionOfType(ConstraintViolationException.class)
-                .isThrownBy(() -> this.animeRepository.save(anime))
+                .isThrownBy(() -> this.animeRepository.saveAndFlush(anime))
                 .withMessageContaining("The anime name cannot be empty");
     }
 
+    @Test
+    @DisplayName("findByIdLessThanOrderByIdDesc returns the next animes after the cursor when successful")
+    void findByIdLessThanOrderByIdDesc_ReturnsNextAnimes_WhenSuccessful() {
+        Anime first = this.animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        Anime second = this.animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        Anime third = this.animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        List<Anime> firstPage = this.animeRepository.findAllByOrderByIdDesc(Limit.of(2));
+        List<Anime> nextPage = this.animeRepository.findByIdLessThanOrderByIdDesc(firstPage.get(1).getId(), Limit.of(2));
+
+        Assertions.assertThat(firstPage).containsExactly(third, second);
+        Assertions.assertThat(nextPage).containsExactly(first);
+    }
+
+    @Test
+    @DisplayName("streamAllViews returns all animes as views when successful")
+    void streamAllViews_ReturnsAllAnimeViews_WhenSuccessful() {
+        Anime animeSaved = this.animeRepository.saveAndFlush(AnimeCreator.createAnimeToBeSaved());
+
+        try (Stream<AnimeView> animes = this.animeRepository.streamAllViews()) {
+            Assertions.assertThat(animes).containsExactly(AnimeView.from(animeSaved));
+        }
+    }
+
+    @Test
+    @DisplayName("searchByNameLike returns animes ignoring case when successful")
+    void searchByNameLike_ReturnsAnimesIgnoringCase_WhenSuccessful() {
+        Anime naruto = this.animeRepository.save(Anime.builder().name("Naruto").build());
+        Anime narutoShippuden = this.animeRepository.save(Anime.builder().name("Naruto Shippuden").build());
+        this.animeRepository.save(Anime.builder().name("Boruto").build());
+
+        Slice<AnimeView> prefixSlice = this.animeRepository.searchByNameLike("naru%", PageRequest.of(0, 5, Sort.by("id")));
+        Slice<AnimeView> containsSlice = this.animeRepository.searchByNameLike("%shipp%", PageRequest.of(0, 5));
+
+        Assertions.assertThat(prefixSlice.getContent()).containsExactly(AnimeView.from(naruto), AnimeView.from(narutoShippuden));
+        Assertions.assertThat(prefixSlice.hasNext()).isFalse();
+        Assertions.assertThat(containsSlice.getContent()).containsExactly(AnimeView.from(narutoShippuden));
+    }
+
+    @Test
+    @DisplayName("searchByNameLike returns a slice that knows whether there is a next page")
+    void searchByNameLike_ReturnsSliceWithNextPage_WhenThereAreMoreMatches() {
+        Anime naruto = this.animeRepository.save(Anime.builder().name("Naruto").build());
+        this.animeRepository.save(Anime.builder().name("Naruto Shippuden").build());
+
+        Slice<AnimeView> animeSlice = this.animeRepository.searchByNameLike("naru%", PageRequest.of(0, 1, Sort.by("id")));
+
+        Assertions.assertThat(animeSlice.getContent()).containsExactly(AnimeView.from(naruto));
+        Assertions.assertThat(animeSlice.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("searchByNameLike matches escaped wildcards literally")
+    void searchByNameLike_MatchesEscapedWildcardsLiterally_WhenTermHasWildcards() {
+        Anime percentAnime = this.animeRepository.save(Anime.builder().name("100% Pascal-sensei").build());
+        this.animeRepository.save(Anime.builder().name("1000 Nights").build());
+
+        Slice<AnimeView> animeSlice = this.animeRepository.searchByNameLike("100\\%%", PageRequest.of(0, 5));
+
+        Assertions.assertThat(animeSlice.getContent()).containsExactly(AnimeView.from(percentAnime));
+    }
+
+    @Test
+    @DisplayName("insertAll persists all animes in chunks when successful")
+    void insertAll_PersistsAllAnimes_WhenSuccessful() {
+        List<Anime> animes = List.of(
+                Anime.builder().name("Naruto").build(),
+                Anime.builder().name("Bleach").build(),
+                Anime.builder().name("One Piece").build());
+
+        int inserted = this.animeRepository.insertAll(animes.iterator());
+
+        Assertions.assertThat(inserted).isEqualTo(3);
+        Assertions.assertThat(this.animeRepository.findAll())
+                .extracting(Anime::getName)
+                .containsExactlyInAnyOrder("Naruto", "Bleach", "One Piece");
+    }
+
+
+    @Test
+    @DisplayName("removeAllById deletes only the animes with the given ids when successful")
+    void removeAllById_DeletesOnlyAnimesWithGivenIds_WhenSuccessful() {
+        Anime naruto = this.animeRepository.save(Anime.builder().name("Naruto").build());
+        Anime bleach = this.animeRepository.save(Anime.builder().name("Bleach").build());
+        this.animeRepository.save(Anime.builder().name("One Piece").build());
+
+        int removed = this.animeRepository.removeAllById(List.of(naruto.getId(), bleach.getId(), bleach.getId(), Long.MAX_VALUE));
+
+        Assertions.assertThat(removed).isEqualTo(2);
+        Assertions.assertThat(this.animeRepository.findAll())
+                .extracting(Anime::getName)
+                .containsExactly("One Piece");
+    }
+
+    @Test
+    @DisplayName("removeByNameLike deletes the animes matching the pattern ignoring case when successful")
+    void removeByNameLike_DeletesMatchingAnimes_WhenSuccessful() {
+        this.animeRepository.save(Anime.builder().name("Naruto").build());
+        this.animeRepository.save(Anime.builder().name("naruto Shippuden").build());
+        this.animeRepository.save(Anime.builder().name("Boruto").build());
+
+        int removed = this.animeRepository.removeByNameLike("naru%");
+
+        Assertions.assertThat(removed).isEqualTo(2);
+        Assertions.assertThat(this.animeRepository.findAll())
+                .extracting(Anime::getName)
+                .containsExactly("Boruto");
+    }
+
+    @Test
+    @DisplayName("updateNames renames each anime with its own name when successful")
+    void updateNames_RenamesEachAnime_WhenSuccessful() {
+        Anime naruto = this.animeRepository.save(Anime.builder().name("Naruto").build());
+        Anime bleach = this.animeRepository.save(Anime.builder().name("Bleach").build());
+        Anime onePiece = this.animeRepository.save(Anime.builder().name("One Piece").build());
+
+        int updated = this.animeRepository.updateNames(Map.of(
+                naruto.getId(), "Naruto Shippuden",
+                bleach.getId(), "Bleach: Thousand-Year Blood War",
+                Long.MAX_VALUE, "Unknown"));
+
+        Assertions.assertThat(updated).isEqualTo(2);
+        Assertions.assertThat(this.animeRepository.findAll())
+                .extracting(Anime::getId, Anime::getName, Anime::getVersion)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple(naruto.getId(), "Naruto Shippuden", 1L),
+                        Assertions.tuple(bleach.getId(), "Bleach: Thousand-Year Blood War", 1L),
+                        Assertions.tuple(onePiece.getId(), "One Piece", 0L));
+    }
+
+    @Test
+    @DisplayName("updateNameByIdAndVersion only renames the anime when the version matches")
+    void updateNameByIdAndVersion_RenamesAnime_OnlyWhenVersionMatches() {
+        Anime saved = this.animeRepository.saveAndFlush(Anime.builder().name("Naruto").build());
+
+        Assertions.assertThat(this.animeRepository.updateNameByIdAndVersion(saved.getId(), "Naruto Shippuden", 0L)).isEqualTo(1);
+        Assertions.assertThat(this.animeRepository.updateNameByIdAndVersion(saved.getId(), "Boruto", 0L)).isZero();
+        Assertions.assertThat(this.animeRepository.findById(saved.getId()))
+                .get()
+                .extracting(Anime::getName, Anime::getVersion)
+                .containsExactly("Naruto Shippuden", 1L);
+    }
 
+    @Test
+    @DisplayName("findAllBy returns a slice telling whether there is a next page when successful")
+    void findAllBy_ReturnsSliceWithNextPageInformation_WhenSuccessful() {
+        this.animeRepository.saveAll(List.of(
+                Anime.builder().name("Naruto").build(),
+                Anime.builder().name("Bleach").build(),
+                Anime.builder().name("One Piece").build()));
+
+        Slice<Anime> firstSlice = this.animeRepository.findAllBy(PageRequest.of(0, 2, Sort.by("id")));
+        Slice<Anime> lastSlice = this.animeRepository.findAllBy(PageRequest.of(1, 2, Sort.by("id")));
+
+        Assertions.assertThat(firstSlice.getContent()).extracting(Anime::getName).containsExactly("Naruto", "Bleach");
+        Assertions.assertThat(firstSlice.hasNext()).isTrue();
+        Assertions.assertThat(lastSlice.getContent()).extracting(Anime::getName).containsExactly("One Piece");
+        Assertions.assertThat(lastSlice.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("findAllViews returns the animes without loading them into the persistence context")
+    void findAllViews_ReturnsAnimesWithoutManagedEntities_WhenSuccessful() {
+        Anime animeSaved = this.animeRepository.saveAndFlush(AnimeCreator.createAnimeToBeSaved());
+        this.entityManager.clear();
+
+        List<AnimeView> animes = this.animeRepository.findAllViews();
+
+        Assertions.assertThat(animes).containsExactly(AnimeView.from(animeSaved));
+        Assertions.assertThat(this.entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("findViewsByName returns the animes with the exact name when successful")
+    void findViewsByName_ReturnsAnimesWithExactName_WhenSuccessful() {
+        Anime animeSaved = this.animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        this.animeRepository.save(Anime.builder().name("Hajime no Ippo Rising").build());
+
+        List<AnimeView> animes = this.animeRepository.findViewsByName(animeSaved.getName());
+
+        Assertions.assertThat(animes).containsExactly(AnimeView.from(animeSaved));
+    }
 }
 /*
 OBS: Não é necessário ter a aplicação em execução
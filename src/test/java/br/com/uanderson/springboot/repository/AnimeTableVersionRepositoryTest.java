@@ -0,0 +1,38 @@
+package br.com.uanderson.springboot.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@DataJpaTest
+@Import(AnimeTableVersionRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)//Como no AnimeTableVersion: fora da transação de uma escrita
+@DisplayName("Tests for AnimeTableVersion Repository")
+class AnimeTableVersionRepositoryTest {
+    @Autowired
+    private AnimeTableVersionRepository animeTableVersionRepository;
+
+    @Test
+    @DisplayName("findVersion returns the same version while the sequence is not advanced")
+    void findVersion_ReturnsSameVersion_WhenSequenceIsNotAdvanced() {
+        long version = this.animeTableVersionRepository.findVersion();
+
+        Assertions.assertThat(this.animeTableVersionRepository.findVersion()).isEqualTo(version);
+    }
+
+    @Test
+    @DisplayName("nextVersion changes the version returned by findVersion")
+    void nextVersion_ChangesFoundVersion_WhenSuccessful() {
+        long version = this.animeTableVersionRepository.findVersion();
+
+        long nextVersion = this.animeTableVersionRepository.nextVersion();
+
+        Assertions.assertThat(nextVersion).isGreaterThanOrEqualTo(version);
+        Assertions.assertThat(this.animeTableVersionRepository.findVersion()).isGreaterThan(version);
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.uanderson.springboot.repository;
+
+import br.com.uanderson.springboot.domain.DevDojoUserDetails;
+import br.com.uanderson.springboot.projection.DevDojoUserView;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+@DataJpaTest
+@DisplayName("Tests for DevDojoUser Repository")
+class DevDojoUserRepositoryTest {
+
+    @Autowired
+    private DevDojoUserRepository devDojoUserRepository;
+
+    @Test
+    @DisplayName("Find by username returns user when successful")
+    void findByUsername_ReturnsUser_WhenSuccessful() {
+        DevDojoUserDetails userSaved = devDojoUserRepository.save(createUser("devdojo"));
+
+        DevDojoUserDetails userFound = devDojoUserRepository.findByUsername("devdojo");
+
+        Assertions.assertThat(userFound).isNotNull();
+        Assertions.assertThat(userFound.getId()).isEqualTo(userSaved.getId());
+    }
+
+    @Test
+    @DisplayName("Save throws DataIntegrityViolationException when username already exists")
+    void save_ThrowsDataIntegrityViolationException_WhenUsernameAlreadyExists() {
+        devDojoUserRepository.saveAndFlush(createUser("devdojo"));
+
+        Assertions.assertThatExceptionOfType(DataIntegrityViolationException.class)
+                .isThrownBy(() -> devDojoUserRepository.saveAndFlush(createUser("devdojo")));
+    }
+
+    private static DevDojoUserDetails createUser(String username) {
+        return DevDojoUserDetails.builder()
+                .name("Devdojo Academy")
+                .username(username)
+                .password("{bcrypt}$2a$10$fRvLXfIR9Thb/RCYxJdG4uzPxrqla2H8ZAjy/Oc7xQQzFrZ2w1mRS")
+                .authorities("ROLE_USER")
+                .build();
+    }
+
+    @Test
+    @DisplayName("findAllViews returns the users without the password when successful")
+    void findAllViews_ReturnsUsersWithoutPassword_WhenSuccessful() {
+        DevDojoUserDetails userSaved = devDojoUserRepository.save(createUser("devdojo"));
+
+        List<DevDojoUserView> users = devDojoUserRepository.findAllViews();
+
+        Assertions.assertThat(users).containsExactly(
+                new DevDojoUserView(userSaved.getId(), "Devdojo Academy", "devdojo", "ROLE_USER"));
+    }
+
+    @Test
+    @DisplayName("findViewById returns the user when found and an empty optional when not found")
+    void findViewById_ReturnsUserOrEmptyOptional_WhenSuccessful() {
+        DevDojoUserDetails userSaved = devDojoUserRepository.save(createUser("devdojo"));
+
+        Assertions.assertThat(devDojoUserRepository.findViewById(userSaved.getId()))
+                .get().extracting(DevDojoUserView::username).isEqualTo("devdojo");
+        Assertions.assertThat(devDojoUserRepository.findViewById(userSaved.getId() + 1)).isEmpty();
+    }
+}
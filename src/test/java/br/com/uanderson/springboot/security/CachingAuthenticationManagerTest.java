@@ -0,0 +1,108 @@
+package br.com.uanderson.springboot.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+
+@DisplayName("Tests for CachingAuthenticationManager")
+class CachingAuthenticationManagerTest {
+    private AuthenticationManager delegateMock;
+    private CredentialCache credentialCache;
+    private CachingAuthenticationManager cachingAuthenticationManager;
+
+    @BeforeEach
+    void setUp() {
+        delegateMock = Mockito.mock(AuthenticationManager.class);
+        credentialCache = new CredentialCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+        cachingAuthenticationManager = new CachingAuthenticationManager(delegateMock, credentialCache);
+
+        BDDMockito.when(delegateMock.authenticate(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> {
+                    Authentication request = invocation.getArgument(0);
+                    if (!"123".equals(request.getCredentials())) {
+                        throw new BadCredentialsException("Bad credentials");
+                    }
+                    return UsernamePasswordAuthenticationToken.authenticated(request.getName(), request.getCredentials(),
+                            AuthorityUtils.createAuthorityList("ROLE_USER"));
+                });
+    }
+
+    @Test
+    @DisplayName("authenticate calls the delegate only once when the same credentials are repeated")
+    void authenticate_SkipsDelegate_WhenCredentialsAreCached() {
+        Authentication first = cachingAuthenticationManager.authenticate(unauthenticated("devdojo", "123"));
+        Authentication second = cachingAuthenticationManager.authenticate(unauthenticated("devdojo", "123"));
+
+        Assertions.assertThat(first.isAuthenticated()).isTrue();
+        Assertions.assertThat(second.isAuthenticated()).isTrue();
+        Assertions.assertThat(second.getName()).isEqualTo("devdojo");
+        Assertions.assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        Mockito.verify(delegateMock, Mockito.times(1)).authenticate(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("authenticate calls the delegate when the password is different from the cached one")
+    void authenticate_CallsDelegate_WhenPasswordIsDifferent() {
+        cachingAuthenticationManager.authenticate(unauthenticated("devdojo", "123"));
+
+        Assertions.assertThatExceptionOfType(BadCredentialsException.class)
+                .isThrownBy(() -> cachingAuthenticationManager.authenticate(unauthenticated("devdojo", "wrong")));
+        Mockito.verify(delegateMock, Mockito.times(2)).authenticate(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("authenticate calls the delegate again when the user is evicted")
+    void authenticate_CallsDelegate_WhenUserIsEvicted() {
+        cachingAuthenticationManager.authenticate(unauthenticated("devdojo", "123"));
+        credentialCache.evict("devdojo");
+        cachingAuthenticationManager.authenticate(unauthenticated("devdojo", "123"));
+
+        Mockito.verify(delegateMock, Mockito.times(2)).authenticate(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("authenticate does not cache the credentials when the user is evicted during the authentication")
+    void authenticate_DoesNotCacheCredentials_WhenUserIsEvictedDuringAuthentication() {
+        Authentication authenticated = UsernamePasswordAuthenticationToken.authenticated("devdojo", "123",
+                AuthorityUtils.createAuthorityList("ROLE_USER"));
+        BDDMockito.willAnswer(invocation -> {
+                    credentialCache.evict("devdojo");//Senha alterada enquanto o BCrypt verificava a antiga
+                    return authenticated;
+                })
+                .willReturn(authenticated)
+                .given(delegateMock).authenticate(ArgumentMatchers.any());
+
+        cachingAuthenticationManager.authenticate(unauthenticated("devdojo", "123"));
+        cachingAuthenticationManager.authenticate(unauthenticated("devdojo", "123"));
+
+        Assertions.assertThat(credentialCache.get("devdojo", "123")).isNotNull();
+        Mockito.verify(delegateMock, Mockito.times(2)).authenticate(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("authenticate never caches or returns the plaintext password")
+    void authenticate_DropsCredentials_WhenAuthenticationIsCached() {
+        Authentication first = cachingAuthenticationManager.authenticate(unauthenticated("devdojo", "123"));
+        Authentication second = cachingAuthenticationManager.authenticate(unauthenticated("devdojo", "123"));
+
+        Assertions.assertThat(first.getCredentials()).isNull();
+        Assertions.assertThat(second.getCredentials()).isNull();
+        Assertions.assertThat(credentialCache.get("devdojo", "123").getCredentials()).isNull();
+    }
+
+    private static Authentication unauthenticated(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
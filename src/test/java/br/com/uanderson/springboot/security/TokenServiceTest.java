@@ -0,0 +1,81 @@
+package br.com.uanderson.springboot.security;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+@DisplayName("Tests for TokenService")
+class TokenServiceTest {
+    private static final Instant NOW = Instant.parse("2024-06-01T10:00:00Z");
+    private static final String SECRET = "test-secret-with-at-least-32-bytes";
+
+    private final TokenService tokenService = new TokenService(SECRET, Duration.ofMinutes(15),
+            Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    @DisplayName("verify returns the authentication of the token when successful")
+    void verify_ReturnsAuthentication_WhenSuccessful() {
+        String token = tokenService.issue(authenticated("devdojo", "ROLE_ADMIN", "ROLE_USER"));
+
+        Authentication authentication = tokenService.verify(token);
+
+        Assertions.assertThat(authentication).isNotNull();
+        Assertions.assertThat(authentication.isAuthenticated()).isTrue();
+        Assertions.assertThat(authentication.getPrincipal()).isInstanceOf(UserDetails.class);
+        Assertions.assertThat(authentication.getName()).isEqualTo("devdojo");
+        Assertions.assertThat(AuthorityUtils.authorityListToSet(authentication.getAuthorities()))
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("verify returns null when the token was tampered")
+    void verify_ReturnsNull_WhenTokenIsTampered() {
+        String token = tokenService.issue(authenticated("devdojo", "ROLE_USER"));
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((NOW.getEpochSecond() + 900 + "|ROLE_ADMIN,ROLE_USER|devdojo").getBytes());
+        String forgedToken = forgedPayload + token.substring(token.indexOf('.'));
+
+        Assertions.assertThat(tokenService.verify(forgedToken)).isNull();
+        Assertions.assertThat(tokenService.verify("not-a-token")).isNull();
+    }
+
+    @Test
+    @DisplayName("verify returns null when the token is expired or signed with another secret")
+    void verify_ReturnsNull_WhenTokenIsExpiredOrFromAnotherSecret() {
+        String token = tokenService.issue(authenticated("devdojo", "ROLE_USER"));
+
+        TokenService later = new TokenService(SECRET, Duration.ofMinutes(15),
+                Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+        TokenService anotherSecret = new TokenService("another-secret-with-at-least-32-bytes", Duration.ofMinutes(15),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        Assertions.assertThat(later.verify(token)).isNull();
+        Assertions.assertThat(anotherSecret.verify(token)).isNull();
+    }
+
+    @Test
+    @DisplayName("TokenService throws IllegalArgumentException when the secret is shorter than 32 bytes")
+    void tokenService_ThrowsIllegalArgumentException_WhenSecretIsShorterThan32Bytes() {
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+        Assertions.assertThatIllegalArgumentException()
+                .isThrownBy(() -> new TokenService("a".repeat(31), Duration.ofMinutes(15), clock))
+                .withMessageContaining("at least 32 bytes");
+        Assertions.assertThatCode(() -> new TokenService("a".repeat(32), Duration.ofMinutes(15), clock))
+                .doesNotThrowAnyException();
+    }
+
+    private static Authentication authenticated(String username, String... roles) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null, AuthorityUtils.createAuthorityList(roles));
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.uanderson.springboot.service;
+
+import br.com.uanderson.springboot.repository.AnimeRepository;
+import br.com.uanderson.springboot.repository.AnimeTableVersionRepository;
+import br.com.uanderson.springboot.wrapper.CountType;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+@DisplayName("Tests for AnimeCounter")
+class AnimeCounterTest {
+    private static final Instant NOW = Instant.parse("2024-06-01T10:00:00Z");
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final AnimeRepository animeRepositoryMock = Mockito.mock(AnimeRepository.class);
+    private final Clock clockMock = Mockito.mock(Clock.class);
+    private final AnimeTableVersionRepository animeTableVersionRepositoryMock = Mockito.mock(AnimeTableVersionRepository.class);
+    private final AnimeTableVersion animeTableVersion = new AnimeTableVersion(animeTableVersionRepositoryMock, TTL, Runnable::run, clockMock);
+    private final AnimeCounter animeCounter = new AnimeCounter(animeRepositoryMock, animeTableVersion,
+            CountType.EXACT, TTL, clockMock);
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.when(clockMock.instant()).thenReturn(NOW);
+        BDDMockito.when(animeRepositoryMock.count()).thenReturn(42L);
+        BDDMockito.when(animeTableVersionRepositoryMock.findVersion()).thenReturn(1L);
+    }
+
+    @Test
+    @DisplayName("count returns the exact count every time when type is EXACT")
+    void count_ReturnsExactCount_WhenTypeIsExact() {
+        animeCounter.count(CountType.EXACT);
+        AnimeCounter.Count count = animeCounter.count(CountType.EXACT);
+
+        Assertions.assertThat(count).isEqualTo(new AnimeCounter.Count(42, CountType.EXACT));
+        Mockito.verify(animeRepositoryMock, Mockito.times(2)).count();
+    }
+
+    @Test
+    @DisplayName("count reuses the cached count while the table version does not change")
+    void count_ReusesCachedCount_WhenTableVersionDoesNotChange() {
+        animeCounter.count(CountType.CACHED);
+        AnimeCounter.Count count = animeCounter.count(CountType.CACHED);
+
+        Assertions.assertThat(count).isEqualTo(new AnimeCounter.Count(42, CountType.CACHED));
+        Mockito.verify(animeRepositoryMock, Mockito.times(1)).count();
+    }
+
+    @Test
+    @DisplayName("count counts again when an anime is written")
+    void count_CountsAgain_WhenAnAnimeIsWritten() {
+        animeCounter.count(CountType.CACHED);
+        BDDMockito.when(animeRepositoryMock.count()).thenReturn(43L);
+        BDDMockito.when(animeTableVersionRepositoryMock.findVersion()).thenReturn(2L);
+        animeTableVersion.increment();
+
+        Assertions.assertThat(animeCounter.count(CountType.CACHED).total()).isEqualTo(43);
+        Mockito.verify(animeRepositoryMock, Mockito.times(2)).count();
+    }
+
+    @Test
+    @DisplayName("count counts again when the cached count expires")
+    void count_CountsAgain_WhenCachedCountExpires() {
+        animeCounter.count(CountType.CACHED);
+        BDDMockito.when(clockMock.instant()).thenReturn(NOW.plus(TTL));
+
+        animeCounter.count(CountType.CACHED);
+
+        Mockito.verify(animeRepositoryMock, Mockito.times(2)).count();
+    }
+
+    @Test
+    @DisplayName("count returns the database estimate when type is ESTIMATED")
+    void count_ReturnsEstimate_WhenTypeIsEstimated() {
+        BDDMockito.when(animeRepositoryMock.estimateCount()).thenReturn(Optional.of(1_000_000L));
+
+        AnimeCounter.Count count = animeCounter.count(CountType.ESTIMATED);
+
+        Assertions.assertThat(count).isEqualTo(new AnimeCounter.Count(1_000_000, CountType.ESTIMATED));
+        Mockito.verify(animeRepositoryMock, Mockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("count falls back to the exact count when the table was never analyzed")
+    void count_FallsBackToExactCount_WhenTableWasNeverAnalyzed() {
+        BDDMockito.when(animeRepositoryMock.estimateCount()).thenReturn(Optional.of(-1L));
+
+        AnimeCounter.Count count = animeCounter.count(CountType.ESTIMATED);
+
+        Assertions.assertThat(count).isEqualTo(new AnimeCounter.Count(42, CountType.EXACT));
+    }
+
+    @Test
+    @DisplayName("count stops asking for the estimate when the database does not support it")
+    void count_FallsBackToExactCount_WhenEstimateIsNotSupported() {
+        BDDMockito.when(animeRepositoryMock.estimateCount())
+                .thenThrow(new InvalidDataAccessResourceUsageException("pg_class not found"));
+
+        AnimeCounter.Count first = animeCounter.count(CountType.ESTIMATED);
+        AnimeCounter.Count second = animeCounter.count(CountType.ESTIMATED);
+
+        Assertions.assertThat(first).isEqualTo(new AnimeCounter.Count(42, CountType.EXACT));
+        Assertions.assertThat(second).isEqualTo(first);
+        Mockito.verify(animeRepositoryMock, Mockito.times(1)).estimateCount();
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.uanderson.springboot.service;
+
+import br.com.uanderson.springboot.config.CacheConfig;
+import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.exception.BadRequestException;
+import br.com.uanderson.springboot.projection.AnimeView;
+import br.com.uanderson.springboot.repository.AnimeRepository;
+import br.com.uanderson.springboot.repository.AnimeTableVersionRepository;
+import br.com.uanderson.springboot.util.AnimeCreator;
+import br.com.uanderson.springboot.util.AnimePostRequestBodyCreator;
+import br.com.uanderson.springboot.util.AnimePutRequestBodyCreator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+@SpringBootTest(classes = AnimeServiceCacheTest.Config.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@DisplayName("Tests for the animes cache of AnimeService")
+class AnimeServiceCacheTest {
+    @Autowired
+    private AnimeService animeService;
+    @Autowired
+    private CacheManager cacheManager;
+    @MockBean
+    private AnimeRepository animeRepositoryMock;
+    @MockBean
+    private AnimeTableVersionRepository animeTableVersionRepositoryMock;
+
+    @Configuration
+    @Import({CacheConfig.class, AnimeService.class, AnimeTableVersion.class, AnimeCounter.class})
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+        Executor applicationTaskExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.ANIMES_CACHE).clear();
+        cacheManager.getCache(CacheConfig.MISSING_ANIMES_CACHE).clear();
+        BDDMockito.when(animeRepositoryMock.findViewById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.of(AnimeCreator.createValidAnimeView()));
+        BDDMockito.when(animeRepositoryMock.updateNameById(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+                .thenReturn(1);
+        BDDMockito.when(animeRepositoryMock.removeById(ArgumentMatchers.anyLong())).thenReturn(1);
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException hits the database only once when anime is cached")
+    void findByIdOrThrowBadRequestException_HitsDatabaseOnlyOnce_WhenAnimeIsCached() {
+        AnimeView anime = animeService.findByIdOrThrowBadRequestException(1L);
+        AnimeView cachedAnime = animeService.findByIdOrThrowBadRequestException(1L);
+
+        Assertions.assertThat(cachedAnime).isSameAs(anime);
+        Mockito.verify(animeRepositoryMock, Mockito.times(1)).findViewById(1L);
+    }
+
+    @Test
+    @DisplayName("replace evicts the cached anime when successful")
+    void replace_EvictsCachedAnime_WhenSuccessful() {
+        animeService.findByIdOrThrowBadRequestException(1L);
+
+        animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody());
+        animeService.findByIdOrThrowBadRequestException(1L);
+
+        //1 consulta do findById em cache e 1 após a invalidação, o replace não consulta o anime
+        Mockito.verify(animeRepositoryMock, Mockito.times(2)).findViewById(1L);
+    }
+
+    @Test
+    @DisplayName("deleteById evicts the cached anime when successful")
+    void deleteById_EvictsCachedAnime_WhenSuccessful() {
+        animeService.findByIdOrThrowBadRequestException(1L);
+
+        animeService.deleteById(1L);
+
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.ANIMES_CACHE).get(1L)).isNull();
+    }
+
+    @Test
+    @DisplayName("save puts the saved anime in the cache when successful")
+    void save_PutsSavedAnimeInCache_WhenSuccessful() {
+        BDDMockito.when(animeRepositoryMock.save(ArgumentMatchers.any(Anime.class)))
+                .thenReturn(AnimeCreator.createValidAnime());
+
+        Anime savedAnime = animeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
+
+        Assertions.assertThat(animeService.findByIdOrThrowBadRequestException(savedAnime.getId()))
+                .isEqualTo(AnimeView.from(savedAnime));
+        Mockito.verify(animeRepositoryMock, Mockito.never()).findViewById(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    @DisplayName("save removes the saved id from the negative cache when successful")
+    void save_RemovesSavedIdFromNegativeCache_WhenSuccessful() {
+        BDDMockito.when(animeRepositoryMock.findViewById(1L)).thenReturn(Optional.empty());
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(1L));
+        BDDMockito.when(animeRepositoryMock.save(ArgumentMatchers.any(Anime.class)))
+                .thenReturn(AnimeCreator.createValidAnime());
+
+        animeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
+
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.MISSING_ANIMES_CACHE).get(1L)).isNull();
+        Assertions.assertThat(animeService.findByIdOrThrowBadRequestException(1L)).isEqualTo(AnimeCreator.createValidAnimeView());
+    }
+
+    @Test
+    @DisplayName("deleteAll and replaceAll evict all cached animes when successful")
+    void deleteAllAndReplaceAll_EvictAllCachedAnimes_WhenSuccessful() {
+        animeService.findByIdOrThrowBadRequestException(1L);
+        animeService.deleteAll(List.of(2L), null, AnimeService.NameMatch.PREFIX);
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.ANIMES_CACHE).get(1L)).isNull();
+
+        animeService.findByIdOrThrowBadRequestException(1L);
+        animeService.replaceAll(List.of(AnimePutRequestBodyCreator.createAnimePutRequestBody()));
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.ANIMES_CACHE).get(1L)).isNull();
+    }
+}
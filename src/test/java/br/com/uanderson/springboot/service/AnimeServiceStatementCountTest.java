@@ -0,0 +1,261 @@
+package br.com.uanderson.springboot.service;
+
+import br.com.uanderson.springboot.config.CacheConfig;
+import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.exception.BadRequestException;
+import br.com.uanderson.springboot.repository.AnimeRepository;
+import br.com.uanderson.springboot.repository.AnimeTableVersionRepository;
+import br.com.uanderson.springboot.requests.AnimePutRequestBody;
+import br.com.uanderson.springboot.util.AnimeCreator;
+import br.com.uanderson.springboot.util.AnimePostRequestBodyCreator;
+import br.com.uanderson.springboot.wrapper.CountType;
+import br.com.uanderson.springboot.wrapper.CountedPage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        //Versão da tabela e total CACHED sem expirar durante o teste: só as escritas os descartam
+        "app.anime.table-version.recheck-interval=1h",
+        "app.anime.count.cached-ttl=1h"
+})
+@Import({AnimeService.class, AnimeTableVersion.class, AnimeTableVersionRepository.class, AnimeCounter.class, CacheConfig.class, AnimeServiceStatementCountTest.Config.class})
+@DisplayName("Tests for the number of SQL statements executed by AnimeService")
+class AnimeServiceStatementCountTest {
+    @Autowired
+    private AnimeService animeService;
+    @Autowired
+    private AnimeRepository animeRepository;
+    @Autowired
+    private AnimeTableVersionRepository animeTableVersionRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private DeferredExecutor tableVersionExecutor;
+
+    private Statistics statistics;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+        DeferredExecutor applicationTaskExecutor() {
+            return new DeferredExecutor();
+        }
+    }
+
+    //Guarda os nextval da versão da tabela até o teste executá-los, fora do método medido
+    static class DeferredExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        tableVersionExecutor.runAll();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)//Sem a transação do teste, como em uma requisição
+    @DisplayName("replace executes a single statement per request when successful")
+    void replace_ExecutesSingleAnimeStatement_WhenSuccessful() {
+        Anime savedAnime = animeRepository.saveAndFlush(AnimeCreator.createAnimeToBeSaved());
+        long tableVersion = animeTableVersionRepository.findVersion();
+        statistics.clear();
+
+        animeService.replace(AnimePutRequestBody.builder().id(savedAnime.getId()).name("Overlord").build());
+        long requestStatements = statistics.getPrepareStatementCount();
+        tableVersionExecutor.runAll();
+
+        Assertions.assertThat(requestStatements).isEqualTo(1);//UPDATE anime, já com o commit
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);//e o nextval, fora da requisição
+        Assertions.assertThat(animeTableVersionRepository.findVersion()).isGreaterThan(tableVersion);
+        Assertions.assertThat(animeRepository.findById(savedAnime.getId()))
+                .get().extracting(Anime::getName).isEqualTo("Overlord");
+        animeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)//Sem a transação do teste, como em uma requisição
+    @DisplayName("deleteById executes a single statement per request when successful")
+    void deleteById_ExecutesSingleAnimeStatement_WhenSuccessful() {
+        Anime savedAnime = animeRepository.saveAndFlush(AnimeCreator.createAnimeToBeSaved());
+        long tableVersion = animeTableVersionRepository.findVersion();
+        statistics.clear();
+
+        animeService.deleteById(savedAnime.getId());
+        long requestStatements = statistics.getPrepareStatementCount();
+        tableVersionExecutor.runAll();
+
+        Assertions.assertThat(requestStatements).isEqualTo(1);//DELETE anime, já com o commit
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);//e o nextval, fora da requisição
+        Assertions.assertThat(animeTableVersionRepository.findVersion()).isGreaterThan(tableVersion);
+        Assertions.assertThat(animeRepository.findById(savedAnime.getId())).isEmpty();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)//Sem a transação do teste, como em uma requisição
+    @DisplayName("save advances the table version after the commit when successful")
+    void save_AdvancesTableVersion_WhenCommitted() {
+        long tableVersion = animeTableVersionRepository.findVersion();
+
+        animeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
+        tableVersionExecutor.runAll();
+
+        Assertions.assertThat(animeTableVersionRepository.findVersion()).isGreaterThan(tableVersion);
+        animeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("deleteById throws BadRequestException after a single statement when anime is not found")
+    void deleteById_ThrowsBadRequestException_WhenAnimeIsNotFound() {
+        statistics.clear();
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.deleteById(Long.MAX_VALUE));
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)//Sem a transação do teste, como em uma requisição
+    @DisplayName("listAllPageable with ESTIMATED falls back to the exact count when the database has no estimate")
+    void listAllPageable_FallsBackToExactCount_WhenDatabaseHasNoEstimate() {
+        animeRepository.deleteAllInBatch();
+        animeRepository.saveAllAndFlush(List.of(AnimeCreator.createAnimeToBeSaved(), AnimeCreator.createAnimeToBeSaved()));
+
+        CountedPage<Anime> animePage = animeService.listAllPageable(PageRequest.of(0, 1), CountType.ESTIMATED);
+
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(2);
+        Assertions.assertThat(animePage.getTotalElementsType()).isEqualTo(CountType.EXACT);
+        animeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)//Sem a transação do teste, como em uma requisição
+    @DisplayName("listAllPageable with CACHED executes a single count after an anime is written")
+    void listAllPageable_CountsOnce_WhenCachedAndAnAnimeIsWritten() {
+        animeRepository.deleteAllInBatch();
+        animeRepository.saveAllAndFlush(List.of(AnimeCreator.createAnimeToBeSaved(), AnimeCreator.createAnimeToBeSaved()));
+        animeService.listAllPageable(PageRequest.of(0, 1), CountType.CACHED);
+        animeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
+        tableVersionExecutor.runAll();
+        statistics.clear();
+
+        CountedPage<Anime> animePage = animeService.listAllPageable(PageRequest.of(0, 1), CountType.CACHED);
+        long afterWrite = statistics.getPrepareStatementCount();
+        long countsAfterWrite = countQueryExecutions();
+        statistics.clear();
+        animeService.listAllPageable(PageRequest.of(0, 1), CountType.CACHED);
+
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(3);
+        Assertions.assertThat(countsAfterWrite).isEqualTo(1);
+        Assertions.assertThat(afterWrite).isEqualTo(3);//página, versão da tabela (sequence) e o count(*)
+        Assertions.assertThat(countQueryExecutions()).isZero();
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);//só a página
+        animeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)//Sem a transação do teste, como em uma requisição
+    @DisplayName("listAllPageable with CACHED executes one count per table version change")
+    void listAllPageable_CountsOncePerTableVersion_WhenCached() {
+        animeRepository.deleteAllInBatch();
+        animeRepository.saveAllAndFlush(List.of(AnimeCreator.createAnimeToBeSaved(), AnimeCreator.createAnimeToBeSaved()));
+        statistics.clear();
+
+        int writes = 3;
+        for (int write = 0; write < writes; write++) {
+            animeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
+            tableVersionExecutor.runAll();
+            animeService.listAllPageable(PageRequest.of(0, 1), CountType.CACHED);
+            animeService.listAllPageable(PageRequest.of(1, 1), CountType.CACHED);
+        }
+
+        Assertions.assertThat(countQueryExecutions()).isEqualTo(writes);
+        animeRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)//Sem a transação do teste, como em uma requisição
+    @DisplayName("findByIdOrThrowBadRequestException keeps the missing id in the negative cache after its read-only transaction")
+    void findByIdOrThrowBadRequestException_CachesMissingId_WhenAnimeIsNotFound() {
+        statistics.clear();
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(Long.MAX_VALUE));
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(Long.MAX_VALUE));
+
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);//só a primeira busca
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)//Sem a transação do teste, como em uma requisição
+    @DisplayName("findTableVersion and listAllSlice execute no count after an anime is written")
+    void listAllSlice_ExecutesNoCount_WhenAnAnimeIsWritten() {
+        animeRepository.deleteAllInBatch();
+        animeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
+        tableVersionExecutor.runAll();
+        statistics.clear();
+
+        String tableVersion = animeService.findTableVersion();
+        long versionStatements = statistics.getPrepareStatementCount();
+        animeService.listAllSlice(PageRequest.of(0, 1));
+
+        Assertions.assertThat(tableVersion).isNotBlank();
+        Assertions.assertThat(versionStatements).isEqualTo(1);//valor atual da anime_table_version_seq
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);//e a página, sem count(*)
+        animeRepository.deleteAllInBatch();
+    }
+
+    //select count(*) do AnimeRepository.count() (JPQL), o Hibernate guarda as estatísticas por consulta
+    private long countQueryExecutions() {
+        return Arrays.stream(statistics.getQueries())
+                .filter(query -> query.startsWith("select count("))
+                .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionCount())
+                .sum();
+    }
+}
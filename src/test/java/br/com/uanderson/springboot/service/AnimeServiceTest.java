@@ -1,11 +1,20 @@
 package br.com.uanderson.springboot.service;
 
+import br.com.uanderson.springboot.config.CacheConfig;
 import br.com.uanderson.springboot.domain.Anime;
 import br.com.uanderson.springboot.exception.BadRequestException;
+import br.com.uanderson.springboot.exception.ConflictException;
+import br.com.uanderson.springboot.projection.AnimeView;
 import br.com.uanderson.springboot.repository.AnimeRepository;
+import br.com.uanderson.springboot.repository.AnimeTableVersionRepository;
+import br.com.uanderson.springboot.requests.AnimePostRequestBody;
+import br.com.uanderson.springboot.requests.AnimePutRequestBody;
 import br.com.uanderson.springboot.util.AnimeCreator;
 import br.com.uanderson.springboot.util.AnimePostRequestBodyCreator;
 import br.com.uanderson.springboot.util.AnimePutRequestBodyCreator;
+import br.com.uanderson.springboot.wrapper.CountType;
+import br.com.uanderson.springboot.wrapper.CountedPage;
+import br.com.uanderson.springboot.wrapper.CursorPage;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,14 +24,27 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 @ExtendWith(SpringExtension.class)//Usado para integrar o JUnit 5 com o Spring, permitindo que o contexto do Spring seja carregado e gerenciado durante os testes.
 class AnimeServiceTest {
@@ -32,6 +54,23 @@ class AnimeServiceTest {
     @Mock // Utiliza-se para todas as injenções de dependências(DI) que estão contidas na classe que queremos testar.
     //Ou seja, Cria um mock da dependência AnimeService que será injetado na classe AnimeController.
     private AnimeRepository animeRepositoryMock;
+    @Mock
+    private CacheManager cacheManagerMock;
+    private final AtomicLong tableVersionSequence = new AtomicLong();
+    /*
+    Versão da tabela com um repositório falso: nextVersion soma 1 na "sequence" e findVersion devolve o valor dela.
+    Criado no inicializador porque o @Spy é criado antes dos @Mock.
+     */
+    @Spy
+    private AnimeTableVersion animeTableVersion = new AnimeTableVersion(Mockito.mock(AnimeTableVersionRepository.class,
+            invocation -> switch (invocation.getMethod().getName()) {
+                case "nextVersion" -> tableVersionSequence.incrementAndGet();
+                case "findVersion" -> tableVersionSequence.get();
+                default -> null;
+            }), Duration.ofMinutes(1), Runnable::run, Clock.systemUTC());
+    @Mock
+    private AnimeCounter animeCounterMock;
+    private final ConcurrentMapCache animesCache = new ConcurrentMapCache(CacheConfig.ANIMES_CACHE);
 
     @BeforeEach
         // Executa este método antes de cada método de teste (@Test), configurando os mocks e preparando o ambiente de teste.
@@ -51,27 +90,35 @@ class AnimeServiceTest {
                 .thenReturn(animePage); // Então, retorna o objeto animePage.
 
         // Configura o mock animeRepositoryMock para retornar uma lista contendo um anime válido quando o método listAllNoPageable for chamado.
-        BDDMockito.when(animeRepositoryMock.findAll())
-                .thenReturn(List.of(AnimeCreator.createValidAnime())); // Então, retorna uma lista com um anime válido.
+        BDDMockito.when(animeRepositoryMock.findAllViews())
+                .thenReturn(List.of(AnimeCreator.createValidAnimeView())); // Então, retorna uma lista com um anime válido.
 
         // Configura o mock animeRepositoryMock para retornar um anime válido quando o método findByIdOrThrowBadRequestException for chamado
         // com qualquer argumento do tipo Long.
-        BDDMockito.when(animeRepositoryMock.findById(ArgumentMatchers.anyLong()))
-                .thenReturn(Optional.of(AnimeCreator.createValidAnime())); // Então, retorna um anime válido.
+        BDDMockito.when(animeRepositoryMock.findViewById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.of(AnimeCreator.createValidAnimeView())); // Então, retorna um anime válido.
 
         // Configura o mock animeRepositoryMock para retornar uma lista contendo um anime válido quando o método findByName for chamado
         // com qualquer argumento do tipo String.
-        BDDMockito.when(animeRepositoryMock.findByName(ArgumentMatchers.anyString()))
-                .thenReturn(List.of(AnimeCreator.createValidAnime())); // Então, retorna uma lista com um anime válido.
+        BDDMockito.when(animeRepositoryMock.findViewsByName(ArgumentMatchers.anyString()))
+                .thenReturn(List.of(AnimeCreator.createValidAnimeView())); // Então, retorna uma lista com um anime válido.
 
         // Configura o mock animeRepositoryMock para retornar um anime válido quando o método save for chamado
         // com qualquer argumento do tipo AnimePostRequestBody.
         BDDMockito.when(animeRepositoryMock.save(ArgumentMatchers.any(Anime.class)))
                 .thenReturn(AnimeCreator.createValidAnime()); // Então, retorna um anime válido.
 
-        // Configura o mock animeServiceMock para não fazer nada quando o método delete (void) for chamado
-        BDDMockito.doNothing().when(animeRepositoryMock)//doNothing-não faça nada/Por estar chamando um method sem retorno
-                .delete(ArgumentMatchers.any(Anime.class));
+        // replace e deleteById: 1 linha afetada = o anime existe
+        BDDMockito.when(animeRepositoryMock.updateNameById(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+                .thenReturn(1);
+        BDDMockito.when(animeRepositoryMock.removeById(ArgumentMatchers.anyLong()))
+                .thenReturn(1);
+
+        // Cache negativo (ids inexistentes) em memória, como o registrado no CacheConfig
+        BDDMockito.when(cacheManagerMock.getCache(CacheConfig.MISSING_ANIMES_CACHE))
+                .thenReturn(new ConcurrentMapCache(CacheConfig.MISSING_ANIMES_CACHE));
+        BDDMockito.when(cacheManagerMock.getCache(CacheConfig.ANIMES_CACHE))
+                .thenReturn(animesCache);
     }
 
 
@@ -101,7 +148,7 @@ class AnimeServiceTest {
         String expectedName = AnimeCreator.createValidAnime().getName();
 
         // Chama o serviço para listar todos os animes sem paginação
-        List<Anime> animeList = animeService.listAllNoPageable();
+        List<AnimeView> animeList = animeService.listAllNoPageable();
 
         // Verifica se a lista retornada não é nula, não está vazia e contém um elemento
         Assertions.assertThat(animeList)
@@ -110,7 +157,7 @@ class AnimeServiceTest {
                 .hasSize(1);
 
         // Verifica se o nome do primeiro anime na lista é igual ao nome esperado
-        Assertions.assertThat(animeList.get(0).getName()).isEqualTo(expectedName);
+        Assertions.assertThat(animeList.get(0).name()).isEqualTo(expectedName);
     }
 
     @Test
@@ -120,13 +167,13 @@ class AnimeServiceTest {
         Long expectedId = AnimeCreator.createValidAnime().getId();
 
         // Chama o serviço para encontrar um anime pelo ID
-        Anime anime = animeService.findByIdOrThrowBadRequestException(1L);
+        AnimeView anime = animeService.findByIdOrThrowBadRequestException(1L);
 
         // Verifica se o anime retornado não é nulo
         Assertions.assertThat(anime).isNotNull();
 
         // Verifica se o ID do anime retornado não é nulo e é igual ao ID esperado
-        Assertions.assertThat(anime.getId())
+        Assertions.assertThat(anime.id())
                 .isNotNull()
                 .isEqualTo(expectedId);
     }
@@ -135,7 +182,7 @@ class AnimeServiceTest {
     @DisplayName("findByIdOrThrowBadRequestException throws BadRequestException when Anime is not found")
     void findByIdOrThrowBadRequestException_ThrowsBadRequestException_WhenAnimeIsNotFound(){
         // Configura o mock para retornar um Optional vazio ao procurar por um ID
-        BDDMockito.when(animeRepositoryMock.findById(ArgumentMatchers.anyLong()))
+        BDDMockito.when(animeRepositoryMock.findViewById(ArgumentMatchers.anyLong()))
                 .thenReturn(Optional.empty());
 
         // Verifica se o método lança uma BadRequestException(Exceção BAD_REQUEST customizada)
@@ -153,7 +200,7 @@ class AnimeServiceTest {
         String expectedName = AnimeCreator.createValidAnime().getName();
 
         // Chama o serviço para encontrar animes pelo nome
-        List<Anime> animeList = animeService.findByName("Overlod");
+        List<AnimeView> animeList = animeService.findByName("Overlod");
 
         // Verifica se a lista retornada não é nula, não está vazia e contém um elemento
         Assertions.assertThat(animeList)
@@ -162,18 +209,18 @@ class AnimeServiceTest {
                 .hasSize(1);
 
         // Verifica se o nome do primeiro anime na lista é igual ao nome esperado
-        Assertions.assertThat(animeList.get(0).getName()).isEqualTo(expectedName);
+        Assertions.assertThat(animeList.get(0).name()).isEqualTo(expectedName);
     }
 
     @Test
     @DisplayName("findByName returns empty list of anime when anime is not found")
     void findByName_ReturnsEmptyListOfAnime_WhenAnimeIsNotFound(){
         // Configura o mock para retornar uma lista vazia ao procurar por um nome
-        BDDMockito.when(animeRepositoryMock.findByName(ArgumentMatchers.anyString()))
+        BDDMockito.when(animeRepositoryMock.findViewsByName(ArgumentMatchers.anyString()))
                 .thenReturn(Collections.emptyList());
 
         // Chama o serviço para encontrar animes pelo nome
-        List<Anime> animeList = animeService.findByName("Overlod");
+        List<AnimeView> animeList = animeService.findByName("Overlod");
 
         // Verifica se a lista retornada não é nula e está vazia
         Assertions.assertThat(animeList)
@@ -210,4 +257,323 @@ class AnimeServiceTest {
                 .doesNotThrowAnyException();
     }
 
+    @Test
+    @DisplayName("listAllAfter returns first page and next cursor without counting when there are more animes")
+    void listAllAfter_ReturnsFirstPageAndNextCursor_WhenThereAreMoreAnimes() {
+        Anime anime = AnimeCreator.createValidAnime();
+        Anime nextAnime = Anime.builder().id(2L).name("Overlord").build();
+        BDDMockito.when(animeRepositoryMock.findAllByOrderByIdDesc(Limit.of(2)))
+                .thenReturn(List.of(nextAnime, anime));
+
+        CursorPage<Anime> firstPage = animeService.listAllAfter("", 1);
+
+        Assertions.assertThat(firstPage.getContent()).containsExactly(nextAnime);
+        Assertions.assertThat(firstPage.getNextCursor()).isNotBlank();
+        Assertions.assertThat(firstPage.isLast()).isFalse();
+
+        BDDMockito.when(animeRepositoryMock.findByIdLessThanOrderByIdDesc(2L, Limit.of(2)))
+                .thenReturn(List.of(anime));
+
+        CursorPage<Anime> lastPage = animeService.listAllAfter(firstPage.getNextCursor(), 1);
+
+        Assertions.assertThat(lastPage.getContent()).containsExactly(anime);
+        Assertions.assertThat(lastPage.isLast()).isTrue();
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("listAllAfter throws BadRequestException when cursor is invalid")
+    void listAllAfter_ThrowsBadRequestException_WhenCursorIsInvalid() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.listAllAfter("not-a-cursor", 5))
+                .withMessageContaining("Invalid cursor");
+    }
+
+
+    @Test
+    @DisplayName("streamAll passes each anime view to the consumer when successful")
+    void streamAll_PassesEachAnimeViewToConsumer_WhenSuccessful() {
+        AnimeView anime = AnimeCreator.createValidAnimeView();
+        BDDMockito.when(animeRepositoryMock.streamAllViews()).thenReturn(Stream.of(anime));
+        List<AnimeView> animes = new ArrayList<>();
+
+        animeService.streamAll(animes::add);
+
+        Assertions.assertThat(animes).containsExactly(anime);
+    }
+
+    @Test
+    @DisplayName("searchByName searches by lower case and escaped prefix when match is PREFIX")
+    void searchByName_SearchesByEscapedPrefix_WhenMatchIsPrefix() {
+        SliceImpl<AnimeView> animeSlice = new SliceImpl<>(List.of(AnimeCreator.createValidAnimeView()), PageRequest.of(0, 5), false);
+        BDDMockito.when(animeRepositoryMock.searchByNameLike(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(animeSlice);
+
+        Slice<AnimeView> slice = animeService.searchByName(" Hajime_", AnimeService.NameMatch.PREFIX, PageRequest.of(0, 5));
+
+        Assertions.assertThat(slice).isSameAs(animeSlice);
+        BDDMockito.verify(animeRepositoryMock).searchByNameLike("hajime\\_%", PageRequest.of(0, 5));
+    }
+
+    @Test
+    @DisplayName("searchByName searches by part of the name when match is CONTAINS")
+    void searchByName_SearchesByPartOfTheName_WhenMatchIsContains() {
+        animeService.searchByName("Ippo", AnimeService.NameMatch.CONTAINS, PageRequest.of(0, 5));
+
+        BDDMockito.verify(animeRepositoryMock).searchByNameLike("%ippo%", PageRequest.of(0, 5));
+    }
+
+    @Test
+    @DisplayName("searchByName throws BadRequestException when search term is blank")
+    void searchByName_ThrowsBadRequestException_WhenTermIsBlank() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.searchByName(" ", AnimeService.NameMatch.PREFIX, PageRequest.of(0, 5)))
+                .withMessageContaining("The search term cannot be empty");
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException answers a missing id from the negative cache")
+    void findByIdOrThrowBadRequestException_AnswersFromNegativeCache_WhenIdWasAlreadyMissing() {
+        BDDMockito.when(animeRepositoryMock.findViewById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(99L));
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(99L))
+                .withMessageContaining("Anime not found");
+
+        BDDMockito.verify(animeRepositoryMock, Mockito.times(1)).findViewById(99L);
+    }
+
+    @Test
+    @DisplayName("saveAll inserts all animes and returns the count when successful")
+    void saveAll_InsertsAllAnimes_WhenSuccessful() {
+        BDDMockito.when(animeRepositoryMock.insertAll(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            Iterator<Anime> animes = invocation.getArgument(0);
+            int inserted = 0;
+            for (; animes.hasNext(); inserted++) {
+                Assertions.assertThat(animes.next().getName()).isEqualTo(AnimeCreator.createAnimeToBeSaved().getName());
+            }
+            return inserted;
+        });
+
+        int inserted = animeService.saveAll(List.of(
+                AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                AnimePostRequestBodyCreator.createAnimePostRequestBody()).iterator());
+
+        Assertions.assertThat(inserted).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("saveAll throws BadRequestException when an anime name is empty")
+    void saveAll_ThrowsBadRequestException_WhenAnimeNameIsEmpty() {
+        BDDMockito.when(animeRepositoryMock.insertAll(ArgumentMatchers.any())).thenAnswer(invocation -> {
+            Iterator<Anime> animes = invocation.getArgument(0);
+            animes.forEachRemaining(anime -> { });
+            return 0;
+        });
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.saveAll(List.of(
+                        AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+                        new AnimePostRequestBody("")).iterator()))
+                .withMessageContaining("The anime name cannot be empty (item 1)");
+    }
+
+    @Test
+    @DisplayName("replace throws BadRequestException when anime is not found")
+    void replace_ThrowsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepositoryMock.updateNameById(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+                .thenReturn(0);
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()))
+                .withMessageContaining("Anime not found");
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).findViewById(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    @DisplayName("delete throws BadRequestException when anime is not found")
+    void delete_ThrowsBadRequestException_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepositoryMock.removeById(ArgumentMatchers.anyLong())).thenReturn(0);
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.deleteById(1L))
+                .withMessage("Anime not found with id 1");
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).findViewById(ArgumentMatchers.anyLong());
+    }
+
+    @Test
+    @DisplayName("deleteAll removes the animes by ids when successful")
+    void deleteAll_RemovesAnimesByIds_WhenSuccessful() {
+        BDDMockito.when(animeRepositoryMock.removeAllById(List.of(1L, 2L))).thenReturn(2);
+
+        Assertions.assertThat(animeService.deleteAll(List.of(1L, 2L), null, AnimeService.NameMatch.PREFIX)).isEqualTo(2);
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).removeByNameLike(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    @DisplayName("deleteAll removes the animes by escaped name pattern when successful")
+    void deleteAll_RemovesAnimesByEscapedNamePattern_WhenSuccessful() {
+        BDDMockito.when(animeRepositoryMock.removeByNameLike("%100\\%%")).thenReturn(3);
+
+        Assertions.assertThat(animeService.deleteAll(null, " 100% ", AnimeService.NameMatch.CONTAINS)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("deleteAll throws BadRequestException when neither or both ids and name are informed")
+    void deleteAll_ThrowsBadRequestException_WhenNeitherOrBothFiltersAreInformed() {
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.deleteAll(List.of(), " ", AnimeService.NameMatch.PREFIX));
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.deleteAll(List.of(1L), "naru", AnimeService.NameMatch.PREFIX));
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).removeAllById(ArgumentMatchers.any());
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).removeByNameLike(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    @DisplayName("replaceAll renames the animes keeping the request order when successful")
+    void replaceAll_RenamesAnimes_WhenSuccessful() {
+        BDDMockito.when(animeRepositoryMock.updateNames(ArgumentMatchers.any())).thenReturn(2);
+
+        int updated = animeService.replaceAll(List.of(
+                AnimePutRequestBody.builder().id(2L).name("Bleach").build(),
+                AnimePutRequestBody.builder().id(1L).name("Naruto").build()));
+
+        Assertions.assertThat(updated).isEqualTo(2);
+        BDDMockito.verify(animeRepositoryMock).updateNames(ArgumentMatchers.argThat(namesById ->
+                List.copyOf(namesById.keySet()).equals(List.of(2L, 1L)) && namesById.get(1L).equals("Naruto")));
+    }
+
+    @Test
+    @DisplayName("replaceAll throws BadRequestException when an id is duplicated")
+    void replaceAll_ThrowsBadRequestException_WhenIdIsDuplicated() {
+        List<AnimePutRequestBody> animePutRequestBodies = List.of(
+                AnimePutRequestBody.builder().id(1L).name("Naruto").build(),
+                AnimePutRequestBody.builder().id(1L).name("Bleach").build());
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.replaceAll(animePutRequestBodies))
+                .withMessage("Duplicated anime id 1 (item 1)");
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).updateNames(ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("replaceAll throws BadRequestException when a name is empty")
+    void replaceAll_ThrowsBadRequestException_WhenNameIsEmpty() {
+        List<AnimePutRequestBody> animePutRequestBodies = List.of(AnimePutRequestBody.builder().id(1L).name("").build());
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.replaceAll(animePutRequestBodies))
+                .withMessage("The anime name cannot be empty (item 0)");
+    }
+
+    @Test
+    @DisplayName("replace throws BadRequestException when name is empty")
+    void replace_ThrowsBadRequestException_WhenNameIsEmpty() {
+        AnimePutRequestBody animePutRequestBody = AnimePutRequestBody.builder().id(1L).name("").build();
+
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.replace(animePutRequestBody))
+                .withMessage("The anime name cannot be empty");
+        BDDMockito.verify(animeRepositoryMock, Mockito.never())
+                .updateNameById(ArgumentMatchers.anyLong(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("replace throws ConflictException when the anime was modified since the informed version")
+    void replace_ThrowsConflictException_WhenVersionDoesNotMatch() {
+        BDDMockito.when(animeRepositoryMock.updateNameByIdAndVersion(1L, "Hajime no Ippo 2", 0L)).thenReturn(0);
+        BDDMockito.when(animeRepositoryMock.existsById(1L)).thenReturn(true);
+        AnimePutRequestBody animePutRequestBody = AnimePutRequestBody.builder().id(1L).name("Hajime no Ippo 2").version(0L).build();
+        String tableVersion = animeService.findTableVersion();
+
+        Assertions.assertThatExceptionOfType(ConflictException.class)
+                .isThrownBy(() -> animeService.replace(animePutRequestBody))
+                .withMessage("The anime 1 was modified, expected version 0");
+        Assertions.assertThat(animeService.findTableVersion()).isEqualTo(tableVersion);
+    }
+
+    @Test
+    @DisplayName("replace changes the table version when successful")
+    void replace_ChangesTableVersion_WhenSuccessful() {
+        String tableVersion = animeService.findTableVersion();
+
+        animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody());
+
+        Assertions.assertThat(animeService.findTableVersion()).isNotEqualTo(tableVersion);
+    }
+
+    @Test
+    @DisplayName("listAllSlice returns the animes without counting them when successful")
+    void listAllSlice_ReturnsAnimesWithoutCounting_WhenSuccessful() {
+        PageRequest pageRequest = PageRequest.of(0, 5);
+        BDDMockito.when(animeRepositoryMock.findAllBy(pageRequest))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), pageRequest, false));
+
+        Slice<Anime> animeSlice = animeService.listAllSlice(pageRequest);
+
+        Assertions.assertThat(animeSlice.getContent()).containsExactly(AnimeCreator.createValidAnime());
+        Assertions.assertThat(animeSlice.hasNext()).isFalse();
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("listAllPageable returns the total of the chosen count type when there is a next page")
+    void listAllPageable_ReturnsTotalOfCountType_WhenThereIsNextPage() {
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        BDDMockito.when(animeRepositoryMock.findAllBy(pageRequest))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), pageRequest, true));
+        BDDMockito.when(animeCounterMock.count(CountType.CACHED))
+                .thenReturn(new AnimeCounter.Count(100, CountType.CACHED));
+
+        CountedPage<Anime> animePage = animeService.listAllPageable(pageRequest, CountType.CACHED);
+
+        Assertions.assertThat(animePage.getContent()).containsExactly(AnimeCreator.createValidAnime());
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(100);
+        Assertions.assertThat(animePage.getTotalElementsType()).isEqualTo(CountType.CACHED);
+        BDDMockito.verify(animeRepositoryMock, Mockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("listAllPageable returns the exact total without counting when it is the last page")
+    void listAllPageable_ReturnsExactTotalWithoutCounting_WhenItIsTheLastPage() {
+        PageRequest pageRequest = PageRequest.of(2, 5);
+        BDDMockito.when(animeRepositoryMock.findAllBy(pageRequest))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), pageRequest, false));
+
+        CountedPage<Anime> animePage = animeService.listAllPageable(pageRequest, CountType.ESTIMATED);
+
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(11);
+        Assertions.assertThat(animePage.getTotalElementsType()).isEqualTo(CountType.EXACT);
+        BDDMockito.verifyNoInteractions(animeCounterMock);
+    }
+
+    @Test
+    @DisplayName("listAllPageable keeps the next page when the estimate is lower than the animes already seen")
+    void listAllPageable_KeepsNextPage_WhenEstimateIsLowerThanAnimesSeen() {
+        PageRequest pageRequest = PageRequest.of(3, 1);
+        BDDMockito.when(animeRepositoryMock.findAllBy(pageRequest))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime()), pageRequest, true));
+        BDDMockito.when(animeCounterMock.count(CountType.ESTIMATED))
+                .thenReturn(new AnimeCounter.Count(2, CountType.ESTIMATED));
+
+        CountedPage<Anime> animePage = animeService.listAllPageable(pageRequest, CountType.ESTIMATED);
+
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(5);
+        Assertions.assertThat(animePage.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("listAllPageable uses the configured count type when none is informed")
+    void listAllPageable_UsesConfiguredCountType_WhenCountTypeIsNull() {
+        BDDMockito.when(animeCounterMock.getDefaultType()).thenReturn(CountType.EXACT);
+
+        CountedPage<Anime> animePage = animeService.listAllPageable(PageRequest.of(0, 5), null);
+
+        Assertions.assertThat(animePage.getTotalElementsType()).isEqualTo(CountType.EXACT);
+        Assertions.assertThat(animePage.toList()).containsExactly(AnimeCreator.createValidAnime());
+        BDDMockito.verify(animeRepositoryMock).findAll(ArgumentMatchers.any(PageRequest.class));
+    }
 }
\ No newline at end of file
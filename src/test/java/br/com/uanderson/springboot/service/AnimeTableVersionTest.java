@@ -0,0 +1,152 @@
+package br.com.uanderson.springboot.service;
+
+import br.com.uanderson.springboot.repository.AnimeTableVersionRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("Tests for AnimeTableVersion")
+class AnimeTableVersionTest {
+    private static final Instant NOW = Instant.parse("2024-06-01T10:00:00Z");
+    private static final Duration RECHECK_INTERVAL = Duration.ofSeconds(5);
+
+    private final AnimeTableVersionRepository animeTableVersionRepositoryMock = Mockito.mock(AnimeTableVersionRepository.class);
+    private final Clock clockMock = Mockito.mock(Clock.class);
+    private final List<Runnable> scheduledTasks = new ArrayList<>();//nextval agendados no executor, executados pelo teste
+    private final AnimeTableVersion animeTableVersion = new AnimeTableVersion(animeTableVersionRepositoryMock,
+            RECHECK_INTERVAL, scheduledTasks::add, clockMock);
+
+    @BeforeEach
+    void setUp() {
+        BDDMockito.when(clockMock.instant()).thenReturn(NOW);
+        BDDMockito.when(animeTableVersionRepositoryMock.findVersion()).thenReturn(7L, 8L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("current returns the version read from the database")
+    void current_ReturnsDatabaseVersion_WhenSuccessful() {
+        Assertions.assertThat(animeTableVersion.current()).isEqualTo("7");
+    }
+
+    @Test
+    @DisplayName("current reuses the version read from the database within the recheck interval")
+    void current_ReusesVersion_WhenWithinRecheckInterval() {
+        animeTableVersion.current();
+        BDDMockito.when(clockMock.instant()).thenReturn(NOW.plus(RECHECK_INTERVAL).minusMillis(1));
+
+        Assertions.assertThat(animeTableVersion.current()).isEqualTo("7");
+        Mockito.verify(animeTableVersionRepositoryMock, Mockito.times(1)).findVersion();
+    }
+
+    @Test
+    @DisplayName("current reads the database again when the recheck interval expires")
+    void current_ReadsDatabaseAgain_WhenRecheckIntervalExpires() {
+        animeTableVersion.current();
+        BDDMockito.when(clockMock.instant()).thenReturn(NOW.plus(RECHECK_INTERVAL));
+
+        Assertions.assertThat(animeTableVersion.current()).isEqualTo("8");
+    }
+
+    @Test
+    @DisplayName("current reads the database again when an anime is written by this instance")
+    void current_ReadsDatabaseAgain_WhenAnAnimeIsWritten() {
+        animeTableVersion.current();
+        animeTableVersion.increment();
+        runScheduledTasks();
+
+        Assertions.assertThat(animeTableVersion.current()).isEqualTo("8");
+        Mockito.verify(animeTableVersionRepositoryMock, Mockito.times(2)).findVersion();
+    }
+
+    @Test
+    @DisplayName("increment advances the version sequence only after the transaction commits")
+    void increment_AdvancesVersion_OnlyAfterCommit() {
+        animeTableVersion.current();
+        TransactionSynchronizationManager.initSynchronization();
+
+        animeTableVersion.increment();
+
+        Mockito.verify(animeTableVersionRepositoryMock, Mockito.never()).nextVersion();
+        Assertions.assertThat(animeTableVersion.current()).isEqualTo("7");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        runScheduledTasks();
+        Mockito.verify(animeTableVersionRepositoryMock).nextVersion();
+        Assertions.assertThat(animeTableVersion.current()).isEqualTo("8");
+    }
+
+    @Test
+    @DisplayName("increment does not advance the version sequence when the transaction rolls back")
+    void increment_DoesNotAdvanceVersion_WhenTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        animeTableVersion.increment();
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        Assertions.assertThat(scheduledTasks).isEmpty();
+        Mockito.verify(animeTableVersionRepositoryMock, Mockito.never()).nextVersion();
+    }
+
+    @Test
+    @DisplayName("increment discards the local version without throwing when the version sequence cannot be advanced")
+    void increment_DiscardsLocalVersion_WhenNextVersionFails() {
+        animeTableVersion.current();
+        BDDMockito.when(animeTableVersionRepositoryMock.nextVersion()).thenThrow(new QueryTimeoutException("timeout"));
+
+        animeTableVersion.increment();
+
+        Assertions.assertThatCode(this::runScheduledTasks).doesNotThrowAnyException();
+        Assertions.assertThat(animeTableVersion.current()).isEqualTo("8");
+    }
+
+    @Test
+    @DisplayName("increment advances the version sequence on the executor, outside the writing request")
+    void increment_AdvancesVersionOnExecutor_WhenCalled() {
+        animeTableVersion.increment();
+
+        Mockito.verify(animeTableVersionRepositoryMock, Mockito.never()).nextVersion();
+        Assertions.assertThat(scheduledTasks).hasSize(1);
+        runScheduledTasks();
+        Mockito.verify(animeTableVersionRepositoryMock).nextVersion();
+    }
+
+    @Test
+    @DisplayName("current returns a new version while the version sequence of a local write was not advanced yet")
+    void current_ReturnsNewVersion_WhileLocalWriteIsPending() {
+        BDDMockito.when(animeTableVersionRepositoryMock.findVersion()).thenReturn(7L, 7L, 8L);
+        animeTableVersion.current();
+
+        animeTableVersion.increment();
+        String pendingVersion = animeTableVersion.current();
+        runScheduledTasks();
+
+        Assertions.assertThat(pendingVersion).isNotEqualTo("7").startsWith("7.");
+        Assertions.assertThat(animeTableVersion.current()).isEqualTo("8");
+    }
+
+    private void runScheduledTasks() {
+        List<Runnable> tasks = List.copyOf(scheduledTasks);
+        scheduledTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
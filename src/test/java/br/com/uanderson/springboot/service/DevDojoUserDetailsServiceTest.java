@@ -0,0 +1,73 @@
+package br.com.uanderson.springboot.service;
+
+import br.com.uanderson.springboot.config.CacheConfig;
+import br.com.uanderson.springboot.domain.DevDojoUserDetails;
+import br.com.uanderson.springboot.repository.DevDojoUserRepository;
+import br.com.uanderson.springboot.security.CredentialCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+
+@DisplayName("Tests for DevDojoUserDetailsService")
+class DevDojoUserDetailsServiceTest {
+    private final DevDojoUserRepository devDojoUserRepositoryMock = Mockito.mock(DevDojoUserRepository.class);
+    private final CredentialCache credentialCache = new CredentialCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+    private final DevDojoUserDetailsService devDojoUserDetailsService = new DevDojoUserDetailsService(
+            devDojoUserRepositoryMock, new ConcurrentMapCacheManager(CacheConfig.USER_DETAILS_CACHE), credentialCache,
+            new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("loadUserByUsername queries the database only once when the user is cached")
+    void loadUserByUsername_QueriesDatabaseOnlyOnce_WhenUserIsCached() {
+        BDDMockito.when(devDojoUserRepositoryMock.findByUsername("devdojo")).thenReturn(user("old-hash"));
+
+        devDojoUserDetailsService.loadUserByUsername("devdojo");
+        UserDetails userDetails = devDojoUserDetailsService.loadUserByUsername("devdojo");
+
+        Assertions.assertThat(userDetails.getPassword()).isEqualTo("old-hash");
+        Mockito.verify(devDojoUserRepositoryMock, Mockito.times(1)).findByUsername("devdojo");
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername discards the user loaded before the user was changed")
+    void loadUserByUsername_DiscardsStaleUser_WhenUserIsEvictedDuringTheLoad() {
+        BDDMockito.when(devDojoUserRepositoryMock.findByUsername("devdojo"))
+                .thenAnswer(invocation -> {
+                    credentialCache.evict("devdojo");//Senha alterada logo após a consulta
+                    return user("old-hash");
+                })
+                .thenReturn(user("new-hash"));
+
+        UserDetails userDetails = devDojoUserDetailsService.loadUserByUsername("devdojo");
+        UserDetails cachedUserDetails = devDojoUserDetailsService.loadUserByUsername("devdojo");
+
+        Assertions.assertThat(userDetails.getPassword()).isEqualTo("new-hash");
+        Assertions.assertThat(cachedUserDetails.getPassword()).isEqualTo("new-hash");
+        Mockito.verify(devDojoUserRepositoryMock, Mockito.times(3)).findByUsername("devdojo");
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername throws UsernameNotFoundException when the user is not found")
+    void loadUserByUsername_ThrowsUsernameNotFoundException_WhenUserIsNotFound() {
+        Assertions.assertThatExceptionOfType(UsernameNotFoundException.class)
+                .isThrownBy(() -> devDojoUserDetailsService.loadUserByUsername("unknown"))
+                .withMessage("DevDojo user not found");
+    }
+
+    private static DevDojoUserDetails user(String password) {
+        return DevDojoUserDetails.builder()
+                .name("Devdojo Academy")
+                .username("devdojo")
+                .password(password)
+                .authorities("ROLE_USER")
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.uanderson.springboot.util;
 
 import br.com.uanderson.springboot.domain.Anime;
+import br.com.uanderson.springboot.projection.AnimeView;
 
 public class AnimeCreator {
     /*
@@ -20,14 +21,21 @@ public class AnimeCreator {
         return Anime.builder()
                 .id(1L)
                 .name("Hajime no Ippo")
+                .version(0L)
                 .build();
         //Aqui sabemos que o anime foi salvo e, é válido pois gerou o ID
     }
 
+    public static AnimeView createValidAnimeView() {
+        return AnimeView.from(createValidAnime());
+        //Mesmo anime válido, como retornado pelas consultas de projeção (listagem e buscas por nome)
+    }
+
     public static Anime createValidUpdateAnime() {
         return Anime.builder()
                 .id(1L)
                 .name("Hajime no Ippo 2")
+                .version(1L)
                 .build();
         //Aqui sabemos que atualizamos com sucesso, pois é o mesmo ID do anime
         //que salvamos.